@@ -0,0 +1,100 @@
+package com.example.productscrud.benchmark;
+
+import com.example.productscrud.config.ApiResponseHttpMessageConverter;
+import com.example.productscrud.model.dto.response.ApiResponse;
+import com.example.productscrud.model.dto.response.PaginationResponse;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.Status;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a list page the way the list endpoint returns it, with a mapper configured like Boot's:
+ * the reflective Jackson path against {@link ApiResponseHttpMessageConverter}. The stream variants
+ * write into a reused buffer, so with the gc profiler the allocation figure is the serializer's own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponseHttpMessageConverter converter;
+    private ByteArrayOutputStream buffer;
+    private ApiResponse<PaginationResponse<List<ProductResponse>>> response;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        converter = new ApiResponseHttpMessageConverter(objectMapper, new SimpleMeterRegistry(),
+                List.of(ProductResponseCode.values()));
+        buffer = new ByteArrayOutputStream(64 * 1024);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductResponse> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new ProductResponse("prd_" + (1000 + i), "CODE-" + i, "Product " + i,
+                    "Description of product number " + i, new BigDecimal("19.99").add(BigDecimal.valueOf(i)),
+                    Currency.USD, ProductStatus.ACTIVE, now.minusDays(i), now, (long) i));
+        }
+        PaginationResponse<List<ProductResponse>> page = PaginationResponse.<List<ProductResponse>>builder()
+                .page(0)
+                .size(pageSize)
+                .totalItems(10_000)
+                .totalPages(10_000 / pageSize)
+                .items(items)
+                .build();
+        response = ApiResponse.<PaginationResponse<List<ProductResponse>>>builder()
+                .status(new Status(ProductResponseCode.PRODUCT_FETCHED.getCode(),
+                        ProductResponseCode.PRODUCT_FETCHED.getDefaultMessage()))
+                .data(page)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public int jacksonToStream() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, response);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int envelopeConverterToStream() throws IOException {
+        buffer.reset();
+        converter.writeEnvelope(response, buffer);
+        return buffer.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.productscrud.benchmark;
+
+import com.example.productscrud.model.entity.AppUser;
+import com.example.productscrud.model.enumeration.AppUserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AppUser.getAuthorities()} runs on every authenticated request and on each @PreAuthorize check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthoritiesBenchmark {
+
+    private AppUser user;
+
+    @Setup
+    public void setup() {
+        user = AppUser.builder()
+                .userId(UUID.randomUUID())
+                .username("bench-user")
+                .password("{noop}secret")
+                .roles(EnumSet.of(AppUserRole.ADMIN, AppUserRole.PRODUCT_READ, AppUserRole.PRODUCT_WRITE))
+                .isActive(true)
+                .build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+}
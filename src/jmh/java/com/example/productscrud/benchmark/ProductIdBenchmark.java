@@ -0,0 +1,38 @@
+package com.example.productscrud.benchmark;
+
+import com.example.productscrud.repository.ProductIdCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * External ID encoding, called once per created product ({@code ProductServiceImpl.generateId} delegates here),
+ * and decoding, called on every by-ID request. {@code stringFormat} is the previous implementation, kept as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductIdBenchmark {
+
+    private long seq = 1_000;
+
+    @Benchmark
+    public String generateId() {
+        return ProductIdCodec.encode(++seq);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return "prd_" + String.format("%04d", ++seq);
+    }
+
+    @Benchmark
+    public long decode() {
+        return ProductIdCodec.decode("prd_1042");
+    }
+}
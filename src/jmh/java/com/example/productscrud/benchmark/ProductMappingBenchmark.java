@@ -0,0 +1,126 @@
+package com.example.productscrud.benchmark;
+
+import com.example.productscrud.ProductsCrudApplication;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.entity.Product;
+import com.example.productscrud.repository.ProductRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A list page read through a real persistence context on an embedded PostgreSQL: the old route
+ * (managed {@link Product} entities, then {@code toResponse()}) against the constructor projection
+ * {@link ProductRepository#findAllResponses} the service now uses. Both fetch {@code size + 1} rows
+ * ordered by created_at, as a Slice does, so the difference is hydration, snapshots and mapping.
+ * Compare gc.alloc.rate.norm from the gc profiler configured in build.gradle: bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductMappingBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final String ENTITY_PAGE = "SELECT p FROM Product p ORDER BY p.createdAt DESC";
+
+    @Param({"20", "100"})
+    private int size;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext app;
+    private EntityManager entityManager;
+    private ProductRepository productRepository;
+    // The old list ran without a transaction of its own, so it got an ordinary read-write context
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private PageRequest page;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        new ResourceDatabasePopulator(new ClassPathResource("productSequence.sql"))
+                .execute(postgres.getPostgresDatabase());
+        app = new SpringApplicationBuilder(ProductsCrudApplication.class).run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+
+        seed(app.getBean(JdbcTemplate.class));
+        // Shared EntityManager proxy: binds to the transaction each benchmark call opens
+        entityManager = app.getBean(EntityManager.class);
+        productRepository = app.getBean(ProductRepository.class);
+        PlatformTransactionManager transactionManager = app.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("""
+                INSERT INTO products (internal_id, external_id, external_seq, code, name, description, price,
+                                      currency, status, version, created_at, updated_at)
+                SELECT gen_random_uuid(),
+                       'prd_' || CASE WHEN g < 10000 THEN lpad(g::text, 4, '0') ELSE g::text END,
+                       g,
+                       'BM-' || g,
+                       'Benchmark product ' || g,
+                       'Seeded by ProductMappingBenchmark',
+                       round((random() * 1000 + 1)::numeric, 2),
+                       'USD',
+                       'ACTIVE',
+                       0,
+                       now() - make_interval(secs => g),
+                       now()
+                FROM generate_series(1, ?) g
+                """, PRODUCTS);
+        jdbc.execute("ANALYZE products");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> entityLoadAndToResponse() {
+        return readWrite.execute(status -> entityManager.createQuery(ENTITY_PAGE, Product.class)
+                .setMaxResults(size + 1)
+                .getResultStream()
+                .limit(size)
+                .map(Product::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductResponse> findAllResponses() {
+        return readOnly.execute(status -> productRepository.findAllResponses(page).getContent());
+    }
+}
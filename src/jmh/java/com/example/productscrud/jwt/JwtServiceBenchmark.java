@@ -0,0 +1,85 @@
+package com.example.productscrud.jwt;
+
+import com.example.productscrud.model.entity.AppUser;
+import com.example.productscrud.model.enumeration.AppUserRole;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and per-request verification. Lives in the jwt package to reach {@code JwtService.init()};
+ * the {@code @Value} fields are filled reflectively, as Spring would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+    // Any key of 256 bits or more; deliberately not the dev secret from application.yml
+    private static final String SECRET =
+            "c2VjcmV0LWZvci1iZW5jaG1hcmtpbmctb25seS1zZWNyZXQtZm9yLWJlbmNobWFya2luZy1vbmx5LXNlY3JldC1mb3ItYmVuY2g=";
+
+    private JwtService jwtService;
+    private AppUser user;
+    private String token;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // Stateless mode is off, so the version registry is never consulted and needs no database
+        jwtService = new JwtService(new VerifiedTokenCache(10_000),
+                new TokenVersionRegistry(null, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+        set("jwtTokenValidity", 3600L);
+        set("injectedSecret", SECRET);
+        set("statelessEnabled", false);
+        jwtService.init();
+
+        user = AppUser.builder()
+                .userId(UUID.randomUUID())
+                .username("bench-user")
+                .password("{noop}secret")
+                .roles(Set.of(AppUserRole.PRODUCT_READ, AppUserRole.PRODUCT_WRITE))
+                .isActive(true)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtService, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    // Served from VerifiedTokenCache after the first call, as on repeat requests with the same token
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    // Full signature check and claim parse, as on the first request with a token
+    @Benchmark
+    public String extractEmailUncached() {
+        return jwtService.extractClaim(token, Claims::getSubject);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, user);
+    }
+}
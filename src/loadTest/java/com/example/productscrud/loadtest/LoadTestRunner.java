@@ -0,0 +1,290 @@
+package com.example.productscrud.loadtest;
+
+import com.example.productscrud.ProductsCrudApplication;
+import com.example.productscrud.repository.ProductIdCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Self-contained load test: boots the application against an embedded PostgreSQL, seeds users and products,
+ * then drives a mixed workload at fixed arrival rates (open model) from an in-process HTTP client.
+ * Latency is measured from each request's scheduled start, so a stalled server shows up in the tail
+ * instead of silently lowering the offered load.
+ * <p>
+ * Settings are {@code loadtest.*} system properties; {@code loadtest.app.<key>} is passed to the application
+ * as {@code --<key>}, e.g. {@code -Ploadtest.app.spring.threads.virtual.enabled=true}.
+ */
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String APP_PREFIX = "loadtest.app.";
+
+    private record Workload(String name, double ratePerSec, Supplier<HttpRequest> request) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final int products;
+    private final int users;
+    private final List<String> tokens = new ArrayList<>();
+
+    private LoadTestRunner(int port, int products, int users) {
+        this.baseUrl = "http://localhost:" + port;
+        this.products = products;
+        this.users = users;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int products = Integer.getInteger("loadtest.products", 10_000);
+        int users = Integer.getInteger("loadtest.users", 10);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            // The sequence must exist before the first create; the trigram indexes need the tables from ddl-auto
+            new ResourceDatabasePopulator(new ClassPathResource("productSequence.sql"))
+                    .execute(postgres.getPostgresDatabase());
+
+            try (ConfigurableApplicationContext app = startApp(postgres.getJdbcUrl("postgres", "postgres"))) {
+                JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+                new ResourceDatabasePopulator(new ClassPathResource("productSearch.sql"))
+                        .execute(jdbc.getDataSource());
+                seed(jdbc, app.getBean(PasswordEncoder.class), products, users);
+
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                new LoadTestRunner(port, products, users).run();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApp(String jdbcUrl) {
+        // Command-line arguments outrank application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + jdbcUrl + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN"
+        ));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith(APP_PREFIX))
+                .forEach(key -> args.add("--" + key.substring(APP_PREFIX.length()) + "=" + System.getProperty(key)));
+        return new SpringApplicationBuilder(ProductsCrudApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void seed(JdbcTemplate jdbc, PasswordEncoder passwordEncoder, int products, int users) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < users; i++) {
+            jdbc.update("""
+                    INSERT INTO app_user (user_id, username, password, roles, failed_login_attempts, is_active)
+                    VALUES (gen_random_uuid(), ?, ?, CAST(? AS json), 0, true)
+                    """, "loadtest" + i, hash, "[\"ADMIN\"]");
+        }
+        // Same external ID format as ProductIdCodec.encode
+        jdbc.update("""
+                INSERT INTO products (internal_id, external_id, external_seq, code, name, description, price,
+                                      currency, status, version, created_at, updated_at)
+                SELECT gen_random_uuid(),
+                       'prd_' || CASE WHEN g < 10000 THEN lpad(g::text, 4, '0') ELSE g::text END,
+                       g,
+                       'LT-' || g,
+                       'Load test product ' || g,
+                       'Seeded by the load test harness',
+                       round((random() * 1000 + 1)::numeric, 2),
+                       'USD',
+                       CASE WHEN g % 4 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                       0,
+                       now() - make_interval(secs => g),
+                       now()
+                FROM generate_series(1, ?) g
+                """, products);
+        jdbc.queryForObject("SELECT setval('product_seq', ?)", Long.class, (long) products + 1);
+        jdbc.execute("ANALYZE products");
+    }
+
+    private void run() throws Exception {
+        for (int i = 0; i < users; i++) {
+            tokens.add(login("loadtest" + i));
+        }
+
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        List<Workload> workloads = List.of(
+                new Workload("POST /auths/login", rate("login", 2), () -> loginRequest("loadtest" + random(users))),
+                new Workload("GET /products", rate("list", 50), () -> authorized(
+                        "/api/v1/products?page=" + random(10) + "&size=20").GET().build()),
+                new Workload("GET /products?q", rate("search", 20), () -> authorized(
+                        "/api/v1/products?q=" + encode("product " + (random(products) + 1))).GET().build()),
+                new Workload("GET /products/{id}", rate("get", 200), () -> authorized(
+                        "/api/v1/products/" + productId()).GET().build()),
+                new Workload("PATCH /products/{id}", rate("patch", 20), () -> authorized(
+                        "/api/v1/products/" + productId())
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"price\": " + (random(100_000) + 1) / 100.0 + "}"))
+                        .build())
+        );
+
+        Map<Workload, LatencyRecorder> recorders = new LinkedHashMap<>();
+        workloads.forEach(w -> recorders.put(w, new LatencyRecorder(w.name())));
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        System.out.printf("Load test: %d products, %d users, warmup %s, duration %s%n",
+                products, users, warmup, duration);
+        try (ExecutorService inFlight = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> pacers = new ArrayList<>();
+            for (Workload workload : workloads) {
+                if (workload.ratePerSec() <= 0) {
+                    continue;
+                }
+                LatencyRecorder recorder = recorders.get(workload);
+                long interval = (long) (1_000_000_000L / workload.ratePerSec());
+                pacers.add(Thread.ofVirtual().name("pacer-" + workload.name()).start(() -> {
+                    for (long intended = start; intended < end; intended += interval) {
+                        sleepUntil(intended);
+                        long scheduled = intended;
+                        inFlight.execute(() -> call(workload, recorder, scheduled, measureFrom));
+                    }
+                }));
+            }
+            for (Thread pacer : pacers) {
+                pacer.join();
+            }
+        }
+
+        report(recorders.values(), duration);
+    }
+
+    private void call(Workload workload, LatencyRecorder recorder, long scheduled, long measureFrom) {
+        boolean measured = scheduled >= measureFrom;
+        try {
+            HttpResponse<Void> response = client.send(workload.request().get(), HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - scheduled;
+            if (!measured) {
+                return;
+            }
+            if (response.statusCode() >= 400) {
+                recorder.error();
+            } else {
+                recorder.record(latency);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                recorder.error();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(Iterable<LatencyRecorder> recorders, Duration duration) throws IOException {
+        double seconds = duration.toNanos() / 1e9;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        System.out.printf("%-22s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (LatencyRecorder recorder : recorders) {
+            Map<String, Object> s = recorder.summary(seconds);
+            endpoints.add(s);
+            System.out.printf("%-22s %10s %8s %10s %10s %10s %10s %10s%n",
+                    s.get("endpoint"), s.get("requests"), s.get("errors"), s.get("throughputPerSec"),
+                    s.get("p50Ms"), s.get("p99Ms"), s.get("p999Ms"), s.get("maxMs"));
+        }
+
+        String reportPath = System.getProperty("loadtest.report");
+        if (reportPath != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("products", products);
+            report.put("users", users);
+            report.put("durationSeconds", seconds);
+            report.put("endpoints", endpoints);
+            Path path = Path.of(reportPath);
+            Files.createDirectories(path.getParent());
+            objectMapper.writeValue(path.toFile(), report);
+            System.out.println("Report written to " + path);
+        }
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.body());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("data").path("accessToken").asText();
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auths/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(random(tokens.size())));
+    }
+
+    private String productId() {
+        return ProductIdCodec.encode(random(products) + 1);
+    }
+
+    private static double rate(String workload, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + workload, String.valueOf(defaultRate)));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.productscrud.cache;
+
+import com.example.productscrud.model.entity.AppUser;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link AppUser}: activation, lockout and role changes all go through a save,
+ * so evicting here keeps the principal cache from serving a stale user.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppUserCacheInvalidator {
+
+    private final AuthPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(AppUser user) {
+        String username = user.getUsername();
+        principalCache.evict(username);
+
+        // Evict again after commit so a concurrent reload cannot re-cache the pre-commit row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.evict(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.productscrud.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated principals so the JWT filter does not hit app_user on every request.
+ * Entries are evicted by {@link AppUserCacheInvalidator} whenever the user row changes.
+ */
+@Component
+public class AuthPrincipalCache {
+
+    private record Entry(UserDetails user, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public AuthPrincipalCache(@Value("${auth.principal-cache.ttl:60s}") Duration ttl,
+                              @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.user();
+        }
+        misses.increment();
+        UserDetails user = loader.apply(username);
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.isExpired(now));
+        }
+        if (entries.size() < maxSize) {
+            entries.put(username, new Entry(user, now + ttlNanos));
+        }
+        return user;
+    }
+
+    public void evict(String username) {
+        entries.remove(username);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.productscrud.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide generation, used as the ETag of list pages. It is the sum of the catalog_generation rows,
+ * one of which every catalog write bumps inside its own transaction, so it moves exactly when the data
+ * becomes visible, on every instance at once, and survives restarts. Each write picks one of a bounded
+ * set of rows at random, so concurrent writers rarely wait on the same row lock.
+ */
+@Component
+public class CatalogGeneration {
+
+    private static final String CURRENT_SQL = "SELECT COALESCE(SUM(value), 0) FROM catalog_generation";
+    // Creates the row on its first write, so a fresh database needs no seed
+    private static final String BUMP_SQL = """
+            INSERT INTO catalog_generation (id, value) VALUES (?, 1)
+            ON CONFLICT (id) DO UPDATE SET value = catalog_generation.value + 1
+            """;
+    private static final String REQUEST_ATTRIBUTE = CatalogGeneration.class.getName() + ".current";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int slots;
+    private final AtomicLong localWrites = new AtomicLong();
+
+    public CatalogGeneration(JdbcTemplate jdbcTemplate,
+                             @Value("${product.catalog.generation-slots:16}") int slots) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slots = Math.max(1, slots);
+    }
+
+    // Read once per HTTP request. Call it outside a transaction: that is what keeps it on the primary,
+    // so only requests that have a tag to confirm should pay for it
+    public long current() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return read();
+        }
+        Long memo = (Long) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = read();
+            request.setAttribute(REQUEST_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    // On the caller's transaction, not memoized: inside a read-only listing this is the replica's generation
+    public long readInTransaction() {
+        return read();
+    }
+
+    // Catalog writes committed through this instance; moves with bump() but costs no round trip
+    public long localWrites() {
+        return localWrites.get();
+    }
+
+    public String etag() {
+        return etag(current());
+    }
+
+    public static String etag(long generation) {
+        return "\"c" + generation + '"';
+    }
+
+    // Run it as the last statement of the write transaction: the row lock is held until commit
+    public void bump() {
+        jdbcTemplate.update(BUMP_SQL, ThreadLocalRandom.current().nextInt(slots));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localWrites.incrementAndGet();
+                }
+            });
+        } else {
+            localWrites.incrementAndGet();
+        }
+    }
+
+    private long read() {
+        Long value = jdbcTemplate.queryForObject(CURRENT_SQL, Long.class);
+        return value != null ? value : 0;
+    }
+}
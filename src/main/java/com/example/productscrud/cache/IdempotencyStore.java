@@ -0,0 +1,89 @@
+package com.example.productscrud.cache;
+
+import com.example.productscrud.exception.ApiException;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of a write under a client-supplied {@code Idempotency-Key} so retries are
+ * answered from memory instead of running the write again.
+ * Keys are scoped per caller, reusing a key with a different payload is rejected, and only
+ * successful results are kept so a failed attempt can be retried with the same key.
+ */
+@Component
+public class IdempotencyStore {
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> result, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder replays = new LongAdder();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public IdempotencyStore(@Value("${product.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${product.idempotency.max-size:100000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String scope, String key, Object fingerprint, Supplier<T> action) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.isExpired(now));
+            if (entries.size() >= maxSize) {
+                // Full of live keys: still serve the request, just without the retry guarantee
+                return new Outcome<>(action.get(), false);
+            }
+        }
+
+        String cacheKey = scope + '\u0000' + key;
+        Entry fresh = new Entry(fingerprint, new CompletableFuture<>(), now + ttlNanos);
+        Entry existing = entries.compute(cacheKey, (k, e) -> e == null || e.isExpired(now) ? fresh : e);
+
+        if (existing != fresh) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new ApiException(ProductResponseCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            CompletableFuture<Object> result = existing.result();
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                throw new ApiException(ProductResponseCode.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+            }
+            replays.increment();
+            return new Outcome<>((T) result.join(), true);
+        }
+
+        try {
+            T value = action.get();
+            fresh.result().complete(value);
+            return new Outcome<>(value, false);
+        } catch (RuntimeException e) {
+            entries.remove(cacheKey, fresh);
+            fresh.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long getReplayCount() {
+        return replays.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
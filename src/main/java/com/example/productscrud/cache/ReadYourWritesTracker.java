@@ -0,0 +1,76 @@
+package com.example.productscrud.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per user, when they last wrote to the catalog. For a short window afterwards their
+ * read-only queries skip the replicas, so a PUT followed by a GET never shows the old row
+ * because of replication lag. Other users may still see it until the replica catches up.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Long> lastWrite = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${app.datasource.read-your-writes-window:5s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    // Start the window once the write is committed, like CatalogGeneration.bump()
+    public void recordWrite() {
+        String user = currentUser();
+        if (user == null || windowNanos <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(user);
+                }
+            });
+        } else {
+            record(user);
+        }
+    }
+
+    public boolean isActiveForCurrentUser() {
+        if (lastWrite.isEmpty()) {
+            return false;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long at = lastWrite.get(user);
+        return at != null && System.nanoTime() - at < windowNanos;
+    }
+
+    public int size() {
+        return lastWrite.size();
+    }
+
+    private void record(String user) {
+        long now = System.nanoTime();
+        lastWrite.put(user, now);
+        if (lastWrite.size() > PURGE_THRESHOLD) {
+            lastWrite.values().removeIf(at -> now - at >= windowNanos);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.productscrud.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of the gradient algorithm:
+ * the long-term average latency is the baseline, and while recent latency rises above it
+ * (work is queueing somewhere downstream) the limit shrinks; while it stays near it the limit grows
+ * by about sqrt(limit). Requests over the limit are rejected rather than queued.
+ * Samples are folded in per 100ms window so the hot path is a CAS and two adders.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // Baseline is an EWMA over roughly the last minute of windows
+    private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile int limit;
+    private volatile long windowStart = System.nanoTime();
+    // Guarded by lock
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+        accepted.increment();
+        return true;
+    }
+
+    // Releases the permit and feeds the request's latency into the limit
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        if (now - windowStart >= WINDOW_NANOS && windowSamples.sum() >= MIN_WINDOW_SAMPLES && lock.tryLock()) {
+            try {
+                update(now);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // For work whose latency says nothing about the backend (long-running streams)
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(long now) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttNanos.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        windowStart = now;
+        if (samples == 0) {
+            return;
+        }
+        double shortRtt = (double) rttSum / samples;
+        longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos + LONG_RTT_ALPHA * (shortRtt - longRttNanos);
+        // Once a queue has drained the baseline would sit far above current latency; let it come down quickly
+        if (longRttNanos > 2 * shortRtt) {
+            longRttNanos *= 0.95;
+        }
+        // The limit was never approached, so this window says nothing about whether it could be higher
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
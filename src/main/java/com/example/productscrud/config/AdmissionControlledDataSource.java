@@ -0,0 +1,47 @@
+package com.example.productscrud.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Takes a {@link DbAdmissionLimiter} permit before borrowing from the pool and gives it back when the
+ * connection is closed. Extends {@link DelegatingDataSource} so {@code unwrap} still reaches the pool.
+ */
+class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final DbAdmissionLimiter limiter;
+
+    AdmissionControlledDataSource(DataSource target, DbAdmissionLimiter limiter) {
+        super(target);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        limiter.acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        limiter.acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    private Connection releasingOnClose(Connection target) {
+        return CloseNotifyingConnection.wrap(target, limiter::release);
+    }
+}
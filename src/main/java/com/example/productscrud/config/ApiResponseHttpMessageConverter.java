@@ -0,0 +1,293 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.model.dto.response.ApiResponse;
+import com.example.productscrud.model.dto.response.PaginationResponse;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.Status;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.model.enumeration.code.ResponseCode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the {@link ApiResponse} envelope without Jackson's reflective bean path.
+ * The {@code {"status":{...},"data":} prefix is precomputed per {@link ResponseCode} with its default
+ * message; product pages and products are written field by field with prebuilt name tokens, straight
+ * into the response stream. Any other payload goes through the ObjectMapper as before, inside the same
+ * envelope. The output is byte-for-byte what the Jackson converter produces with Boot's defaults.
+ */
+public class ApiResponseHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString CURRENCY = new SerializedString("currency");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private static final SerializedString PAGE = new SerializedString("page");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString TOTAL_ITEMS = new SerializedString("totalItems");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    private static final Map<Currency, SerializedString> CURRENCIES = enumTokens(Currency.class);
+    private static final Map<ProductStatus, SerializedString> STATUSES = enumTokens(ProductStatus.class);
+
+    private static final byte[] NULL_STATUS_PREFIX = "{\"status\":null,\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    private record StatusPrefix(String message, byte[] bytes) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, StatusPrefix> statusPrefixes = new HashMap<>();
+    private final Timer timer;
+
+    public ApiResponseHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                           Collection<? extends ResponseCode> responseCodes) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        // Same meter as TimedJacksonHttpMessageConverter, so dashboards keep working
+        this.timer = Timer.builder("http.json.write")
+                .tag("type", ApiResponse.class.getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // Built once and never modified, so plain HashMap reads are safe
+        for (ResponseCode code : responseCodes) {
+            statusPrefixes.putIfAbsent(code.getCode(),
+                    new StatusPrefix(code.getDefaultMessage(), prefix(code.getCode(), code.getDefaultMessage())));
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, SerializedString> enumTokens(Class<E> type) {
+        Map<E, SerializedString> tokens = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            tokens.put(constant, new SerializedString(constant.name()));
+        }
+        return tokens;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ApiResponse is response-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            writeEnvelope(response, outputMessage.getBody());
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Also used by the security entry points, which write outside Spring MVC
+    public void writeEnvelope(ApiResponse<?> response, OutputStream out) throws IOException {
+        out.write(statusPrefix(response.getStatus()));
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // The stream belongs to the container; only flush it
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeData(generator, response.getData());
+            generator.writeRaw('}');
+        }
+    }
+
+    private byte[] statusPrefix(Status status) throws IOException {
+        if (status == null) {
+            return NULL_STATUS_PREFIX;
+        }
+        StatusPrefix cached = statusPrefixes.get(status.getCode());
+        if (cached != null && cached.message().equals(status.getMessage())) {
+            return cached.bytes();
+        }
+        // Custom messages (validation details and the like) are built per response
+        return prefix(status.getCode(), status.getMessage());
+    }
+
+    private byte[] prefix(String code, String message) {
+        try {
+            return ("{\"status\":{\"code\":" + objectMapper.writeValueAsString(code)
+                    + ",\"message\":" + objectMapper.writeValueAsString(message) + "},\"data\":")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeData(JsonGenerator generator, Object data) throws IOException {
+        if (data == null) {
+            generator.writeNull();
+        } else if (data instanceof ProductResponse product) {
+            writeProduct(generator, product, new char[32]);
+        } else if (data instanceof PaginationResponse<?> page && page.getItems() instanceof List<?> items
+                && allProducts(items)) {
+            writeProductPage(generator, page, items);
+        } else {
+            objectMapper.writeValue(generator, data);
+        }
+    }
+
+    private static boolean allProducts(List<?> items) {
+        for (Object item : items) {
+            if (!(item instanceof ProductResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeProductPage(JsonGenerator generator, PaginationResponse<?> page, List<?> items)
+            throws IOException {
+        generator.writeStartObject();
+        writeInteger(generator, PAGE, page.getPage());
+        writeInteger(generator, SIZE, page.getSize());
+        writeInteger(generator, TOTAL_ITEMS, page.getTotalItems());
+        writeInteger(generator, TOTAL_PAGES, page.getTotalPages());
+        generator.writeFieldName(ITEMS);
+        generator.writeStartArray();
+        char[] scratch = new char[32];
+        for (Object item : items) {
+            writeProduct(generator, (ProductResponse) item, scratch);
+        }
+        generator.writeEndArray();
+        // @JsonInclude(NON_NULL) on PaginationResponse.nextCursor
+        if (page.getNextCursor() != null) {
+            generator.writeFieldName(NEXT_CURSOR);
+            generator.writeString(page.getNextCursor());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeProduct(JsonGenerator generator, ProductResponse product, char[] scratch)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeString(product.getId());
+        generator.writeFieldName(CODE);
+        generator.writeString(product.getCode());
+        generator.writeFieldName(NAME);
+        generator.writeString(product.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(product.getDescription());
+        generator.writeFieldName(PRICE);
+        if (product.getPrice() != null) {
+            generator.writeNumber(product.getPrice());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(CURRENCY);
+        writeToken(generator, product.getCurrency() != null ? CURRENCIES.get(product.getCurrency()) : null);
+        generator.writeFieldName(STATUS);
+        writeToken(generator, product.getStatus() != null ? STATUSES.get(product.getStatus()) : null);
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(generator, product.getCreatedAt(), scratch);
+        generator.writeFieldName(UPDATED_AT);
+        writeDateTime(generator, product.getUpdatedAt(), scratch);
+        generator.writeFieldName(VERSION);
+        if (product.getVersion() != null) {
+            generator.writeNumber(product.getVersion());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeInteger(JsonGenerator generator, SerializableString name, Integer value)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    private static void writeToken(JsonGenerator generator, SerializableString token) throws IOException {
+        if (token != null) {
+            generator.writeString(token);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    // ISO_LOCAL_DATE_TIME, as jackson-datatype-jsr310 writes it, into a reused buffer instead of a new String
+    private static void writeDateTime(JsonGenerator generator, LocalDateTime value, char[] buf) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        int pos = digits(buf, 0, value.getYear(), 4);
+        buf[pos++] = '-';
+        pos = digits(buf, pos, value.getMonthValue(), 2);
+        buf[pos++] = '-';
+        pos = digits(buf, pos, value.getDayOfMonth(), 2);
+        buf[pos++] = 'T';
+        pos = digits(buf, pos, value.getHour(), 2);
+        buf[pos++] = ':';
+        pos = digits(buf, pos, value.getMinute(), 2);
+        buf[pos++] = ':';
+        pos = digits(buf, pos, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano > 0) {
+            // Fraction without trailing zeros
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buf[pos++] = '.';
+            pos = digits(buf, pos, nano, width);
+        }
+        generator.writeString(buf, 0, pos);
+    }
+
+    private static int digits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
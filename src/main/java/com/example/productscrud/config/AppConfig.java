@@ -1,11 +1,22 @@
 package com.example.productscrud.config;
 
 
+import com.example.productscrud.model.enumeration.code.AuthResponseCode;
+import com.example.productscrud.model.enumeration.code.CommonResponseCode;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.example.productscrud.model.enumeration.code.ResponseCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
@@ -13,5 +24,14 @@ public class AppConfig {
         return new ModelMapper();
     }
 
-
+    // Converter beans go ahead of Boot's defaults, so every ApiResponse body is written by this one
+    @Bean
+    public ApiResponseHttpMessageConverter apiResponseHttpMessageConverter(ObjectMapper objectMapper,
+                                                                           MeterRegistry meterRegistry) {
+        List<ResponseCode> responseCodes = new ArrayList<>();
+        responseCodes.addAll(List.of(ProductResponseCode.values()));
+        responseCodes.addAll(List.of(AuthResponseCode.values()));
+        responseCodes.addAll(List.of(CommonResponseCode.values()));
+        return new ApiResponseHttpMessageConverter(objectMapper, meterRegistry, responseCodes);
+    }
 }
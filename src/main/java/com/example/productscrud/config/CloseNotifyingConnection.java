@@ -0,0 +1,34 @@
+package com.example.productscrud.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a pooled connection so bookkeeping (permits, outstanding counts) is undone when it is closed.
+ */
+final class CloseNotifyingConnection {
+
+    private CloseNotifyingConnection() {
+    }
+
+    static Connection wrap(Connection target, Runnable onClose) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        // close() may be called more than once; the hook runs exactly once
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            onClose.run();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.model.dto.response.ApiResponse;
+import com.example.productscrud.model.dto.response.Status;
+import com.example.productscrud.model.enumeration.code.CommonResponseCode;
+import com.example.productscrud.model.enumeration.code.ResponseCode;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before any work is done: a request over its budget's current limit gets a 503 with
+ * Retry-After immediately instead of waiting in Tomcat's queue. Runs ahead of JwtAuthFilter, so
+ * rejected requests do not even pay for token verification.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final ResponseCode OVERLOADED_CODE = CommonResponseCode.SERVER_BUSY;
+    private static final ApiResponse<Void> OVERLOADED = ApiResponse.<Void>builder()
+            .status(new Status(OVERLOADED_CODE.getCode(), OVERLOADED_CODE.getDefaultMessage()))
+            .build();
+
+    private final RequestConcurrencyLimits limits;
+    private final ApiResponseHttpMessageConverter apiResponseConverter;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(RequestConcurrencyLimits limits, ApiResponseHttpMessageConverter apiResponseConverter) {
+        this.limits = limits;
+        this.apiResponseConverter = apiResponseConverter;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, limits.getRetryAfter().toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimit limit = limits.forPath(request.getRequestURI().substring(request.getContextPath().length()));
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limit.tryAcquire()) {
+            response.setStatus(OVERLOADED_CODE.getHttpStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            apiResponseConverter.writeEnvelope(OVERLOADED, response.getOutputStream());
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming exports: hold the permit until the stream ends, but keep their duration out of the latency signal
+                async = true;
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        limit.releaseWithoutSample();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            }
+        } finally {
+            if (!async) {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
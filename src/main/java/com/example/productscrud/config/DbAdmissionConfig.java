@@ -0,0 +1,44 @@
+package com.example.productscrud.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Puts every Hikari pool behind its own {@link DbAdmissionLimiter}: the application's pool, or with
+ * replicas configured the primary pool here and each replica pool in {@link ReplicaRoutingConfig}.
+ * Enabled together with virtual threads by default (see application.yml); each limit defaults to its
+ * pool's size so no pool ever has more borrowers than connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.admission.enabled", havingValue = "true")
+public class DbAdmissionConfig {
+
+    // Static: both beans are needed while post-processors are still being registered
+    @Bean
+    static DbAdmissionLimiters dbAdmissionLimiters(
+            @Value("${app.db.admission.permits:0}") int permits,
+            @Value("${app.db.admission.timeout:5s}") Duration timeout) {
+        return new DbAdmissionLimiters(permits, timeout);
+    }
+
+    @Bean
+    static BeanPostProcessor dbAdmissionDataSourcePostProcessor(ObjectProvider<DbAdmissionLimiters> limiters) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The pools themselves, never the routing proxy in front of them
+                if (bean instanceof HikariDataSource pool) {
+                    return limiters.getObject().wrap(beanName, pool, pool.getMaximumPoolSize());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.productscrud.config;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads may hold a JDBC connection at once.
+ * With virtual threads the request count is effectively unbounded, so without this every request would
+ * queue inside the pool; here waiters park cheaply, give up after a bounded wait, and the wait is measured.
+ */
+public class DbAdmissionLimiter {
+
+    private final String pool;
+    private final Semaphore permits;
+    private final int limit;
+    private final long timeoutNanos;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public DbAdmissionLimiter(String pool, int limit, Duration timeout) {
+        this.pool = pool;
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            acquired.increment();
+            return;
+        }
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                        "No " + pool + " permit available within " + Duration.ofNanos(timeoutNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        } finally {
+            waiting.decrementAndGet();
+            long waited = System.nanoTime() - start;
+            waitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        acquired.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+}
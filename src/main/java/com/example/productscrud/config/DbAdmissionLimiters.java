@@ -0,0 +1,38 @@
+package com.example.productscrud.config;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link DbAdmissionLimiter} per connection pool, each sized to the pool it guards.
+ * Admission has to sit in front of the pools themselves: a single limiter in front of the routing proxy
+ * would size read traffic to the primary's pool and let it queue on a replica or starve behind writes.
+ */
+public class DbAdmissionLimiters {
+
+    private final int permits;
+    private final Duration timeout;
+    private final Map<String, DbAdmissionLimiter> limiters = new ConcurrentHashMap<>();
+
+    // permits > 0 caps every pool below its size; 0 admits exactly as many borrowers as each pool has connections
+    public DbAdmissionLimiters(int permits, Duration timeout) {
+        this.permits = permits;
+        this.timeout = timeout;
+    }
+
+    public DataSource wrap(String pool, DataSource dataSource, int poolSize) {
+        if (dataSource instanceof AdmissionControlledDataSource) {
+            return dataSource;
+        }
+        int limit = permits > 0 ? Math.min(permits, poolSize) : poolSize;
+        DbAdmissionLimiter limiter = limiters.computeIfAbsent(pool, name -> new DbAdmissionLimiter(name, limit, timeout));
+        return new AdmissionControlledDataSource(dataSource, limiter);
+    }
+
+    public Collection<DbAdmissionLimiter> all() {
+        return limiters.values();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.cache.AuthPrincipalCache;
+import com.example.productscrud.cache.IdempotencyStore;
+import com.example.productscrud.cache.SingleFlight;
+import com.example.productscrud.jwt.VerifiedTokenCache;
+import com.example.productscrud.service.impl.CoalescingProductService;
+import com.example.productscrud.service.impl.PasswordVerificationStage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters on top of what Actuator already records (HTTP server requests, repository
+ * invocations, Hikari pool). The in-process stages keep their own counters; this only exposes them.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Replaces Boot's default Jackson converter (it backs off when one is defined)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder applicationStageMetrics(AuthPrincipalCache principalCache,
+                                               PasswordVerificationStage passwordStage,
+                                               VerifiedTokenCache tokenCache,
+                                               IdempotencyStore idempotencyStore,
+                                               ObjectProvider<DbAdmissionLimiters> admissionLimiters,
+                                               ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                               RequestConcurrencyLimits concurrencyLimits,
+                                               CoalescingProductService coalescingProductService) {
+        return registry -> {
+            // 1. Principal cache in front of app_user
+            FunctionCounter.builder("auth.principal.cache.requests", principalCache, AuthPrincipalCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("auth.principal.cache.requests", principalCache, AuthPrincipalCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("auth.principal.cache.size", principalCache, AuthPrincipalCache::size).register(registry);
+
+            // 2. Bounded password verification stage
+            Gauge.builder("auth.login.stage.queued", passwordStage, PasswordVerificationStage::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("auth.login.stage.active", passwordStage, PasswordVerificationStage::getActiveCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.login.stage.rejected", passwordStage,
+                    PasswordVerificationStage::getRejectedCount).register(registry);
+            FunctionTimer.builder("auth.login.stage.queue.wait", passwordStage,
+                    PasswordVerificationStage::getCompletedCount,
+                    PasswordVerificationStage::getQueueWaitNanos, TimeUnit.NANOSECONDS).register(registry);
+            FunctionTimer.builder("auth.login.stage.hash", passwordStage,
+                    PasswordVerificationStage::getCompletedCount,
+                    PasswordVerificationStage::getHashNanos, TimeUnit.NANOSECONDS).register(registry);
+
+            // 3. Verified JWT cache and idempotent creates
+            Gauge.builder("jwt.cache.size", tokenCache, VerifiedTokenCache::size).register(registry);
+            FunctionCounter.builder("product.idempotency.replays", idempotencyStore,
+                    IdempotencyStore::getReplayCount).register(registry);
+            Gauge.builder("product.idempotency.keys", idempotencyStore, IdempotencyStore::size).register(registry);
+
+            // 4. DB admission limiters, one series per pool, only present in virtual-thread mode.
+            // Resolve the router first: it is what registers the replica pools' limiters.
+            ReplicaRoutingDataSource router = replicaRouting.getIfAvailable();
+            DbAdmissionLimiters limiters = admissionLimiters.getIfAvailable();
+            if (limiters != null) {
+                for (DbAdmissionLimiter limiter : limiters.all()) {
+                    String pool = limiter.getPool();
+                    Gauge.builder("db.admission.limit", limiter, DbAdmissionLimiter::getLimit)
+                            .tag("pool", pool).register(registry);
+                    Gauge.builder("db.admission.in.use", limiter, DbAdmissionLimiter::getInUse)
+                            .tag("pool", pool).register(registry);
+                    Gauge.builder("db.admission.waiting", limiter, DbAdmissionLimiter::getWaiting)
+                            .tag("pool", pool).register(registry);
+                    FunctionTimer.builder("db.admission.wait", limiter,
+                            DbAdmissionLimiter::getAcquiredCount,
+                            DbAdmissionLimiter::getWaitNanos, TimeUnit.NANOSECONDS).tag("pool", pool).register(registry);
+                    Gauge.builder("db.admission.wait.max", limiter, l -> l.getMaxWaitNanos() / 1e9)
+                            .baseUnit("seconds").tag("pool", pool).register(registry);
+                    FunctionCounter.builder("db.admission.timeouts", limiter, DbAdmissionLimiter::getTimeoutCount)
+                            .tag("pool", pool).register(registry);
+                }
+            }
+
+            // 5. Read-replica routing, only present when replicas are configured
+            if (router != null) {
+                Gauge.builder("db.replica.healthy", router, ReplicaRoutingDataSource::getHealthyCount)
+                        .register(registry);
+                Gauge.builder("db.replica.outstanding", router, ReplicaRoutingDataSource::getOutstanding)
+                        .register(registry);
+                FunctionCounter.builder("db.replica.reads", router, ReplicaRoutingDataSource::getReplicaReads)
+                        .tag("target", "replica").register(registry);
+                FunctionCounter.builder("db.replica.reads", router, ReplicaRoutingDataSource::getReadYourWritesReads)
+                        .tag("target", "primary-read-your-writes").register(registry);
+                FunctionCounter.builder("db.replica.reads", router, ReplicaRoutingDataSource::getFallbackReads)
+                        .tag("target", "primary-fallback").register(registry);
+            }
+
+            // 6. Adaptive request concurrency limits, one series per budget
+            for (AdaptiveConcurrencyLimit limit : concurrencyLimits.all()) {
+                Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                        .tag("budget", limit.getName()).register(registry);
+                Gauge.builder("http.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                        .tag("budget", limit.getName()).register(registry);
+                FunctionCounter.builder("http.concurrency.requests", limit, AdaptiveConcurrencyLimit::getAcceptedCount)
+                        .tag("budget", limit.getName()).tag("result", "accepted").register(registry);
+                FunctionCounter.builder("http.concurrency.requests", limit, AdaptiveConcurrencyLimit::getRejectedCount)
+                        .tag("budget", limit.getName()).tag("result", "rejected").register(registry);
+            }
+
+            // 7. Single-flight product reads; coalescing ratio = 1 - executions / calls
+            bindSingleFlight(registry, "by_id", coalescingProductService.getByIdFlights());
+            bindSingleFlight(registry, "list", coalescingProductService.getListFlights());
+        };
+    }
+
+    private static void bindSingleFlight(MeterRegistry registry, String operation, SingleFlight<?, ?> flights) {
+        FunctionCounter.builder("product.read.coalescing.calls", flights, SingleFlight::getCallCount)
+                .tag("operation", operation).register(registry);
+        FunctionCounter.builder("product.read.coalescing.executions", flights, SingleFlight::getExecutionCount)
+                .tag("operation", operation).register(registry);
+        Gauge.builder("product.read.coalescing.in.flight", flights, SingleFlight::inFlight)
+                .tag("operation", operation).register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.cache.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replica pools when {@code app.datasource.replicas} is set.
+ * Defining a DataSource makes Boot's own back off, so the primary pool is built here from the usual
+ * {@code spring.datasource.*} properties; the {@code dataSource} bean wraps it in a
+ * {@link LazyConnectionDataSourceProxy}, which only picks a pool once the transaction's read-only
+ * flag is known.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+public class ReplicaRoutingConfig {
+
+    record ReplicaProperties(String url, String username, String password, Integer maximumPoolSize) {
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Injected as a DataSource: with admission control on, the bean is the pool behind its limiter
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             ObjectProvider<DbAdmissionLimiters> admissionLimiters,
+                                                             DataSourceProperties properties,
+                                                             Environment environment,
+                                                             ReadYourWritesTracker readYourWrites,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${app.datasource.replica-max-lag:10s}") Duration maxLag)
+            throws SQLException {
+        int primaryPoolSize = primaryDataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        DbAdmissionLimiters limiters = admissionLimiters.getIfAvailable();
+        List<ReplicaProperties> configured = Binder.get(environment)
+                .bind("app.datasource.replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties replica = configured.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.url());
+            // Credentials and size default to the primary's
+            pool.setUsername(replica.username() != null ? replica.username() : properties.determineUsername());
+            pool.setPassword(replica.password() != null ? replica.password() : properties.determinePassword());
+            pool.setMaximumPoolSize(replica.maximumPoolSize() != null
+                    ? replica.maximumPoolSize() : primaryPoolSize);
+            pool.setReadOnly(true);
+            // A dead replica should fail over quickly, not hold the request for Hikari's default 30s
+            pool.setConnectionTimeout(2_000);
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            DataSource connections = limiters != null
+                    ? limiters.wrap(pool.getPoolName(), pool, pool.getMaximumPoolSize())
+                    : pool;
+            replicas.add(new ReplicaRoutingDataSource.Replica(pool, connections));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.cache.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only connections, handed out by {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * for {@code @Transactional(readOnly = true)} work.
+ * Picks the healthy replica with the fewest connections currently borrowed through it, and falls back
+ * to the primary when the caller is inside their read-your-writes window or no replica is usable.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Seconds behind the primary; 0 when not a standby or when everything received has been replayed
+    // (an idle primary would otherwise make the replay timestamp look old)
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        // The pool, or the pool behind its admission limiter
+        private final DataSource connections;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool, DataSource connections) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+            this.connections = connections;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final double maxLagSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder readYourWritesReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas,
+                             ReadYourWritesTracker readYourWrites, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isActiveForCurrentUser()) {
+            readYourWritesReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = leastOutstanding();
+        if (replica == null) {
+            fallbackReads.increment();
+            return primary.getConnection();
+        }
+        replica.outstanding.incrementAndGet();
+        try {
+            Connection connection = replica.connections.getConnection();
+            replicaReads.increment();
+            return CloseNotifyingConnection.wrap(connection, replica.outstanding::decrementAndGet);
+        } catch (SQLException e) {
+            // Take it out of rotation until the next health check sees it answer again
+            replica.outstanding.decrementAndGet();
+            markHealthy(replica, false, e.getMessage());
+            fallbackReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica pools use their configured credentials");
+    }
+
+    // Start from a rotating index so ties do not always land on the first replica
+    private Replica leastOutstanding() {
+        int n = replicas.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), n);
+        Replica best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((start + i) % n);
+            if (!replica.healthy) {
+                continue;
+            }
+            int outstanding = replica.outstanding.get();
+            if (outstanding < bestOutstanding) {
+                best = replica;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    // Straight to the pool: a probe should neither wait for nor take an admission permit
+    @Scheduled(fixedDelayString = "${app.datasource.replica-health-interval:PT5S}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                markHealthy(replica, lag <= maxLagSeconds, "replication lag " + lag + "s");
+            } catch (SQLException e) {
+                markHealthy(replica, false, e.getMessage());
+            }
+        }
+    }
+
+    private void markHealthy(Replica replica, boolean healthy, String reason) {
+        if (replica.healthy != healthy) {
+            if (healthy) {
+                logger.info("Replica {} back in rotation", replica.name);
+            } else {
+                logger.warn("Replica {} out of rotation: {}", replica.name, reason);
+            }
+        }
+        replica.healthy = healthy;
+    }
+
+    public int getHealthyCount() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    public int getOutstanding() {
+        return replicas.stream().mapToInt(r -> r.outstanding.get()).sum();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getReadYourWritesReads() {
+        return readYourWritesReads.sum();
+    }
+
+    public long getFallbackReads() {
+        return fallbackReads.sum();
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+}
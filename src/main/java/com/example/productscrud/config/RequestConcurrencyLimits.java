@@ -0,0 +1,60 @@
+package com.example.productscrud.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Separate adaptive budgets for login/registration (bcrypt-bound) and the product API (database-bound),
+ * so a slow database cannot starve logins and a login storm cannot starve product reads.
+ */
+@Component
+public class RequestConcurrencyLimits {
+
+    private static final String AUTHS_PATH = "/api/v1/auths/";
+    private static final String PRODUCTS_PATH = "/api/v1/products";
+
+    private final boolean enabled;
+    private final Duration retryAfter;
+    private final AdaptiveConcurrencyLimit auths;
+    private final AdaptiveConcurrencyLimit products;
+
+    public RequestConcurrencyLimits(
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter,
+            @Value("${app.concurrency-limit.auths.initial:20}") int authsInitial,
+            @Value("${app.concurrency-limit.auths.min:4}") int authsMin,
+            @Value("${app.concurrency-limit.auths.max:100}") int authsMax,
+            @Value("${app.concurrency-limit.products.initial:50}") int productsInitial,
+            @Value("${app.concurrency-limit.products.min:10}") int productsMin,
+            @Value("${app.concurrency-limit.products.max:400}") int productsMax) {
+        this.enabled = enabled;
+        this.retryAfter = retryAfter;
+        this.auths = new AdaptiveConcurrencyLimit("auths", authsInitial, authsMin, authsMax);
+        this.products = new AdaptiveConcurrencyLimit("products", productsInitial, productsMin, productsMax);
+    }
+
+    // Null means unlimited (actuator, API docs)
+    public AdaptiveConcurrencyLimit forPath(String path) {
+        if (!enabled) {
+            return null;
+        }
+        if (path.startsWith(AUTHS_PATH)) {
+            return auths;
+        }
+        if (path.startsWith(PRODUCTS_PATH)) {
+            return products;
+        }
+        return null;
+    }
+
+    public List<AdaptiveConcurrencyLimit> all() {
+        return List.of(auths, products);
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -4,6 +4,8 @@ import com.example.productscrud.jwt.JwtAuthEntryPoint;
 import com.example.productscrud.jwt.JwtAuthFilter;
 import com.example.productscrud.jwt.JwtService;
 import com.example.productscrud.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -42,11 +44,15 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                    JwtAuthFilter jwtAuthFilter,
                                                    AuthenticationProvider authenticationProvider,
-                                                   JwtAuthEntryPoint jwtAuthEntryPoint) throws Exception {
+                                                   JwtAuthEntryPoint jwtAuthEntryPoint,
+                                                   RequestConcurrencyLimits concurrencyLimits,
+                                                   ApiResponseHttpMessageConverter apiResponseConverter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Actuator listens on management.server.port, which is not published outside the host
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .requestMatchers("/api/v1/auths/login", "/api/v1/auths/register", "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
@@ -57,22 +63,24 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Not a bean, so Boot does not also register it with the servlet container
+                .addFilterBefore(new ConcurrencyLimitFilter(concurrencyLimits, apiResponseConverter), JwtAuthFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(@Lazy AuthService authService) {
+    public AuthenticationProvider authenticationProvider(@Lazy AuthService authService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(authService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(12), meterRegistry);
     }
 
     @Bean
@@ -5,6 +5,7 @@ import com.example.productscrud.model.dto.request.AuthRequest;
 import com.example.productscrud.model.dto.response.AuthResponse;
 import com.example.productscrud.model.enumeration.code.AuthResponseCode;
 import com.example.productscrud.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,8 +22,8 @@ public class AuthController extends BaseController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
-        AuthResponse authResponse = authService.login(request);
+    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        AuthResponse authResponse = authService.login(request, httpRequest.getRemoteAddr());
         return responseEntity(AuthResponseCode.LOGIN_SUCCESS, authResponse);
     }
 
@@ -47,4 +47,32 @@ public class BaseController {
 
         return ResponseEntity.status(httpStatus).body(response);
     }
-}
\ No newline at end of file
+
+    public <T> ResponseEntity<T> withHeader(ResponseEntity<T> response, String name, String value) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(name, value)
+                .body(response.getBody());
+    }
+
+    public ResponseEntity<Void> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix on the client's copy is ignored
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,66 +1,215 @@
 package com.example.productscrud.controller;
 
+import com.example.productscrud.cache.CatalogGeneration;
+import com.example.productscrud.cache.IdempotencyStore;
+import com.example.productscrud.exception.ApiException;
 import com.example.productscrud.model.dto.request.PartialProductUpdateRequest;
 import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.dto.response.ApiResponse;
+import com.example.productscrud.model.dto.response.CatalogPage;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.ProductVersionTag;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.CountMode;
+import com.example.productscrud.model.enumeration.PaginationMode;
 import com.example.productscrud.model.enumeration.ProductStatus;
 import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.example.productscrud.service.ProductImportService;
 import com.example.productscrud.service.ProductService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-@RestController("/api/v1/products")
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearerAuth")
 public class ProductController extends BaseController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final IdempotencyStore idempotencyStore;
+    private final CatalogGeneration catalogGeneration;
+
+    @Value("${product.bulk.max-items:10000}")
+    private int bulkMaxItems;
 
     @GetMapping
     public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) ProductStatus status,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "ASC") Sort.Direction direction
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(MAX_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "OFFSET") PaginationMode mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountMode countMode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return responseEntity(
-                ProductResponseCode.PRODUCT_FETCHED,
-                productService.getAllProducts(q, status, page, size, direction)
-        );
+        // Compared against the primary: a tag that matches it describes data that is still current.
+        // Without a tag to confirm there is nothing to compare, so the primary is not asked
+        if (ifNoneMatch != null) {
+            String current = catalogGeneration.etag();
+            if (etagMatches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+        // The response tag is the generation the page was actually read at, which on a lagging
+        // replica is older than the primary's, so the next request gets a full response rather than a stale 304
+        CatalogPage listing = mode == PaginationMode.CURSOR || cursor != null
+                ? productService.getAllProductsByCursor(q, status, cursor, size, direction)
+                : productService.getAllProducts(q, status, page, size, direction, countMode);
+        return withHeader(responseEntity(ProductResponseCode.PRODUCT_FETCHED, listing.page()),
+                HttpHeaders.ETAG, CatalogGeneration.etag(listing.generation()));
     }
 
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE','PRODUCT_READ')")
-    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductRequest request) {
-        return responseEntity(ProductResponseCode.PRODUCT_CREATED, productService.create(request));
+    public ResponseEntity<?> createProduct(
+            @Valid @RequestBody ProductRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            Principal principal
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return responseEntity(ProductResponseCode.PRODUCT_CREATED, productService.create(request));
+        }
+        IdempotencyStore.Outcome<ProductResponse> outcome = idempotencyStore.execute(
+                principal.getName(), idempotencyKey, request, () -> productService.create(request));
+        ResponseEntity<ApiResponse<ProductResponse>> response =
+                responseEntity(ProductResponseCode.PRODUCT_CREATED, outcome.value());
+        if (!outcome.replayed()) {
+            return response;
+        }
+        return withHeader(response, IDEMPOTENT_REPLAYED, "true");
+    }
+
+    @PostMapping("bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
+    public ResponseEntity<?> createProducts(@RequestBody List<ProductRequest> requests) {
+        if (requests.size() > bulkMaxItems) {
+            throw new ApiException(ProductResponseCode.BULK_LIMIT_EXCEEDED,
+                    "A bulk request may contain at most " + bulkMaxItems + " products");
+        }
+        return responseEntity(ProductResponseCode.PRODUCTS_BULK_PROCESSED, productService.createAll(requests));
+    }
+
+    @GetMapping("export")
+    @PreAuthorize("hasAnyRole('ADMIN','PRODUCT_READ')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) ProductStatus status,
+            @RequestParam(defaultValue = "NDJSON") CatalogFormat format
+    ) {
+        StreamingResponseBody body = out -> productService.exportProducts(status, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
+    public ResponseEntity<?> importProducts(
+            @RequestParam(defaultValue = "CSV") CatalogFormat format,
+            HttpServletRequest request
+    ) throws IOException {
+        return responseEntity(
+                ProductResponseCode.PRODUCT_IMPORT_ACCEPTED,
+                ProductResponseCode.PRODUCT_IMPORT_ACCEPTED.getDefaultMessage(),
+                HttpStatus.ACCEPTED,
+                productImportService.startImport(format, request.getInputStream())
+        );
+    }
+
+    @GetMapping("import/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId) {
+        return responseEntity(ProductResponseCode.IMPORT_JOB_FOUND, productImportService.getJob(jobId));
     }
 
     @GetMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN','PRODUCT_READ')")
-    public ResponseEntity<?> getProductById(@PathVariable String id) {
-        return responseEntity(ProductResponseCode.PRODUCT_FOUND, productService.getProductById(id));
+    public ResponseEntity<?> getProductById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // Conditional GET: compare against (version, updatedAt) before loading and serializing the product
+        if (ifNoneMatch != null) {
+            String current = productService.getProductVersionTag(id).etag();
+            if (etagMatches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+        return withETag(ProductResponseCode.PRODUCT_FOUND, productService.getProductById(id));
     }
 
     @PutMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
-    public ResponseEntity<?> updateProductById(@Valid @RequestBody ProductRequest request, @PathVariable String id) {
-        return responseEntity(ProductResponseCode.PRODUCT_UPDATED, productService.updateProductById(id,request));
+    public ResponseEntity<?> updateProductById(
+            @Valid @RequestBody ProductRequest request,
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        // A full replace must say which version it replaces; "If-Match: *" opts into overwriting whatever is there
+        if (ifMatch == null && request.version() == null) {
+            throw new ApiException(ProductResponseCode.PRODUCT_PRECONDITION_REQUIRED);
+        }
+        return withETag(ProductResponseCode.PRODUCT_UPDATED,
+                productService.updateProductById(id, request, ifMatchVersion(ifMatch)));
     }
     @PatchMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
-    public ResponseEntity<?> partialUpdateProductById(@Valid @RequestBody PartialProductUpdateRequest request, @PathVariable String id) {
-        return responseEntity(ProductResponseCode.PRODUCT_UPDATED, productService.partialUpdateProductById(id,request));
+    public ResponseEntity<?> partialUpdateProductById(
+            @Valid @RequestBody PartialProductUpdateRequest request,
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return withETag(ProductResponseCode.PRODUCT_UPDATED,
+                productService.partialUpdateProductById(id, request, ifMatchVersion(ifMatch)));
     }
 
     @DeleteMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_WRITE')")
-    public ResponseEntity<?> deleteProductById( @PathVariable String id) {
-        productService.deleteProductById(id);
+    public ResponseEntity<?> deleteProductById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        productService.deleteProductById(id, ifMatchVersion(ifMatch));
         return responseEntity(ProductResponseCode.PRODUCT_DELETED,null);
     }
+
+    private ResponseEntity<ApiResponse<ProductResponse>> withETag(ProductResponseCode code, ProductResponse product) {
+        return withHeader(responseEntity(code, product), HttpHeaders.ETAG, ProductVersionTag.of(product).etag());
+    }
+
+    // "*" only requires the product to exist, which every write path already checks
+    private static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = ProductVersionTag.versionOf(ifMatch);
+        if (version == null) {
+            throw new ApiException(ProductResponseCode.PRODUCT_PRECONDITION_FAILED);
+        }
+        return version;
+    }
 }
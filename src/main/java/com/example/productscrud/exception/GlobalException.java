@@ -2,10 +2,15 @@ package com.example.productscrud.exception;
 
 import com.example.productscrud.model.dto.response.ApiResponse;
 import com.example.productscrud.model.dto.response.Status;
+import com.example.productscrud.model.enumeration.code.CommonResponseCode;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
 import com.example.productscrud.model.enumeration.code.ResponseCode;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +20,7 @@ import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -48,6 +54,51 @@ public class GlobalException {
         return ResponseEntity.status(code.getHttpStatus()).body(body);
     }
 
+    // 1b. Saturated bounded stages → 503 with Retry-After
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        ResponseCode code = ex.getCode();
+
+        ApiResponse<Void> body = ApiResponse.<Void>builder()
+                .status(new Status(code.getCode(), ex.getMessage()))
+                .data(null)
+                .build();
+
+        return ResponseEntity.status(code.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    // 1c. Optimistic lock lost on an entity write (e.g. delete racing an update) → 409
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        ResponseCode code = ProductResponseCode.PRODUCT_VERSION_CONFLICT;
+
+        ApiResponse<Void> body = ApiResponse.<Void>builder()
+                .status(new Status(code.getCode(), code.getDefaultMessage()))
+                .data(null)
+                .build();
+
+        return ResponseEntity.status(code.getHttpStatus()).body(body);
+    }
+
+    // 1d. No connection within the admission/pool timeout → 503 instead of a generic 500
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ApiResponse<Void>> handleDatabaseBusy(Exception ex) {
+        logger.warn("Database connection unavailable: {}", ex.getMessage());
+
+        ResponseCode code = CommonResponseCode.DATABASE_BUSY;
+
+        ApiResponse<Void> body = ApiResponse.<Void>builder()
+                .status(new Status(code.getCode(), code.getDefaultMessage()))
+                .data(null)
+                .build();
+
+        return ResponseEntity.status(code.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
     // 2. Bean validation failures (@Valid, @Validated parameters)
     @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class})
     public ResponseEntity<ApiResponse<Void>> handleValidationExceptions(Exception ex) {
@@ -0,0 +1,18 @@
+package com.example.productscrud.exception;
+
+import com.example.productscrud.model.enumeration.code.ResponseCode;
+import lombok.Getter;
+
+/**
+ * Raised when a bounded stage is saturated; the handler turns it into a 503 with a Retry-After header.
+ */
+@Getter
+public class ServiceUnavailableException extends ApiException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(ResponseCode code, long retryAfterSeconds) {
+        super(code);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
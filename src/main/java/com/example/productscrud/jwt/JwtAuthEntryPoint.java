@@ -1,9 +1,9 @@
 package com.example.productscrud.jwt;
 
 
+import com.example.productscrud.config.ApiResponseHttpMessageConverter;
 import com.example.productscrud.model.dto.response.ApiResponse;
 import com.example.productscrud.model.dto.response.Status;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +17,7 @@ import java.io.IOException;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
-    private final ObjectMapper objectMapper;
+    private final ApiResponseHttpMessageConverter apiResponseConverter;
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
@@ -31,6 +31,6 @@ public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
                 .data(null)
                 .build();
 
-        objectMapper.writeValue(response.getOutputStream(), body);
+        apiResponseConverter.writeEnvelope(body, response.getOutputStream());
     }
 }
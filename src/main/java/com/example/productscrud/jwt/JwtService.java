@@ -2,8 +2,13 @@ package com.example.productscrud.jwt;
 
 import com.example.productscrud.model.entity.AppUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -12,15 +17,50 @@ import javax.crypto.SecretKey;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtService {
     @Value("${token.expires-in:3600}")
     private long jwtTokenValidity;
     @Value("${token.secret}")
     private String injectedSecret;
+    @Value("${token.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final MeterRegistry meterRegistry;
+
+    // Decoding the secret and building the parser is done once, not per request
+    private SecretKey signKey;
+    private JwtParser jwtParser;
+    private Timer cachedTimer;
+    private Timer parsedTimer;
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Base64.getDecoder().decode(injectedSecret);
+        this.signKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+        this.cachedTimer = verifyTimer("cached");
+        this.parsedTimer = verifyTimer("parsed");
+        this.rejectedTimer = verifyTimer("rejected");
+    }
+
+    private Timer verifyTimer(String result) {
+        return Timer.builder("jwt.verify")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     private String createToken(Map<String, Object> claim, String subject) {
         return Jwts.builder()
@@ -32,8 +72,7 @@ public class JwtService {
     }
 
     private SecretKey getSignKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(injectedSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signKey;
     }
 
     //2. generate token for user
@@ -41,14 +80,19 @@ public class JwtService {
         Map<String, Object> claims = new HashMap<>();
         AppUser appUser = (AppUser) userDetails;
         claims.put("user_id", appUser.getUserId());
+        if (statelessEnabled) {
+            // Sign authorities and the user's token version so the filter can skip the app_user lookup
+            claims.put("roles", appUser.getRoles() != null
+                    ? appUser.getRoles().stream().map(Enum::name).toList()
+                    : List.of());
+            claims.put("ver", appUser.getTokenVersion());
+        }
         return createToken(claims, appUser.getUsername());
     }
 
     //3. retrieving any information from token we will need the secret key
     private Claims extractAllClaim(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -61,22 +105,61 @@ public class JwtService {
 
     //5. retrieve username from jwt token
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     //6. retrieve expiration date from jwt token
     public Date extractExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).expiration();
     }
 
-    //7. check expired token
-    private Boolean isTokenExpired(String token) {
-        return extractExpirationDate(token).before(new Date());
+    //7. parse and verify the signature once; repeat calls with the same token are served from the cache
+    public VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = extractAllClaim(token);
+        } catch (RuntimeException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Object userId = claims.get("user_id");
+        Object roles = claims.get("roles");
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? userId.toString() : null,
+                claims.getExpiration(),
+                roles instanceof List<?> list ? list.stream().map(String::valueOf).toList() : null,
+                claims.get("ver", Integer.class)
+        );
+        verifiedTokenCache.put(token, verified);
+        parsedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
 
     //8. validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    public Boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
+    public boolean isStatelessEnabled() {
+        return statelessEnabled;
+    }
+
+    //9. stateless mode: trust the signed roles as long as the token version has not been revoked
+    public boolean canAuthorizeStatelessly(VerifiedToken token) {
+        return statelessEnabled
+                && token.isStateless()
+                && !token.isExpired()
+                && tokenVersionRegistry.isCurrent(token.userId(), token.version());
     }
 }
@@ -0,0 +1,54 @@
+package com.example.productscrud.jwt;
+
+import com.example.productscrud.model.entity.AppUser;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bumps app_user.token_version inside the UPDATE that changes what a signed token asserts
+ * (roles, activation, lock), so the new version commits or rolls back with the change itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionListener {
+
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    @PostLoad
+    @PostPersist
+    public void remember(AppUser user) {
+        user.setLoadedAuthorityFingerprint(user.authorityFingerprint());
+    }
+
+    @PreUpdate
+    public void bumpIfChanged(AppUser user) {
+        if (user.getLoadedAuthorityFingerprint() != null
+                && user.getLoadedAuthorityFingerprint() != user.authorityFingerprint()) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(AppUser user) {
+        remember(user);
+        String userId = user.getUserId().toString();
+        tokenVersionRegistry.evict(userId);
+        // Evict again after commit so a concurrent lookup cannot re-cache the pre-commit version
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenVersionRegistry.evict(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.productscrud.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token versions used by stateless authorization.
+ * The version is app_user.token_version, bumped by {@link TokenVersionListener} in the same transaction
+ * that changes a user's roles or activation, and by the login-attempt flush when it locks the account,
+ * so every token signed with an older version is stale on every node and across restarts.
+ * Lookups are cached for a short TTL; a change made on another node takes at most that long to apply here.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final String VERSION_SQL = "SELECT token_version FROM app_user WHERE user_id = ?";
+    // A deleted user: no token is current
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private record Entry(int version, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+
+    public TokenVersionRegistry(JdbcTemplate jdbcTemplate,
+                                @Value("${token.stateless.version-ttl:5s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isCurrent(String userId, Integer version) {
+        return userId != null && version != null && version >= currentVersion(userId);
+    }
+
+    public int currentVersion(String userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            return entry.version();
+        }
+        int version = load(userId);
+        if (entries.size() >= 10_000) {
+            entries.values().removeIf(e -> now - e.expiresAt() >= 0);
+        }
+        entries.put(userId, new Entry(version, now + ttlNanos));
+        return version;
+    }
+
+    // Local changes apply at once instead of after the TTL
+    public void evict(String userId) {
+        entries.remove(userId);
+    }
+
+    private int load(String userId) {
+        UUID id;
+        try {
+            id = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return REMOVED;
+        }
+        List<Integer> versions = jdbcTemplate.queryForList(VERSION_SQL, Integer.class, id);
+        return versions.isEmpty() ? REMOVED : versions.get(0);
+    }
+}
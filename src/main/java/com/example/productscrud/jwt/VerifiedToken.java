@@ -0,0 +1,19 @@
+package com.example.productscrud.jwt;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature has already been checked, so callers never re-parse it.
+ * {@code roles} and {@code version} are only present on tokens issued in stateless mode.
+ */
+public record VerifiedToken(String subject, String userId, Date expiration, List<String> roles, Integer version) {
+
+    public boolean isStateless() {
+        return roles != null && version != null;
+    }
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.productscrud.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified tokens keyed by the SHA-256 digest of the raw token.
+ * Entries die at the token's own {@code exp}, so a hit never outlives the signature it stands for.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<ByteBuffer, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${token.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public VerifiedToken get(String token) {
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired()) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        entries.values().removeIf(VerifiedToken::isExpired);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
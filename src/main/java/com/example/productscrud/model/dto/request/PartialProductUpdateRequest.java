@@ -5,6 +5,6 @@ import com.example.productscrud.model.enumeration.ProductStatus;
 import java.math.BigDecimal;
 
 public record PartialProductUpdateRequest (
-        BigDecimal price, ProductStatus status
+        BigDecimal price, ProductStatus status, Long version
 ){
 }
@@ -0,0 +1,49 @@
+package com.example.productscrud.model.dto.request;
+
+import com.example.productscrud.exception.ApiException;
+import com.example.productscrud.model.entity.Product;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seek position for keyset pagination: the (createdAt, internalId) of the last row of the previous page,
+ * and the direction that page was read in, so following a cursor never switches direction mid-walk.
+ * Clients only ever see the opaque Base64 form returned as {@code nextCursor}.
+ */
+public record ProductCursor(LocalDateTime createdAt, UUID internalId, Sort.Direction direction) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ProductCursor of(Product product, Sort.Direction direction) {
+        return new ProductCursor(product.getCreatedAt(), product.getInternalId(), direction);
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + internalId + SEPARATOR + direction.name();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            // Cursors issued before the direction was encoded have two parts; the request's direction applies to them
+            if (parts.length != 2 && parts.length != 3) {
+                throw new ApiException(ProductResponseCode.INVALID_CURSOR);
+            }
+            return new ProductCursor(
+                    LocalDateTime.parse(parts[0]),
+                    UUID.fromString(parts[1]),
+                    parts.length == 3 ? Sort.Direction.valueOf(parts[2]) : null
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ApiException(ProductResponseCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -12,6 +12,7 @@ public record ProductRequest(
         @NotBlank(message = "Product code is required")
         @Size(min = 3, max = 30)
         String code,
+        @NotNull
         @Size(min = 1, max = 50)
         String name,
         @NotBlank
@@ -27,7 +28,10 @@ public record ProductRequest(
         Currency currency,
 
         @NotNull
-        ProductStatus status
+        ProductStatus status,
+
+        // Expected version on update; ignored on create
+        Long version
 
 ) {
     public Product toEntity() {
@@ -0,0 +1,18 @@
+package com.example.productscrud.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateResponse {
+    private int createdCount;
+    private int failedCount;
+    private List<BulkProductResult> results;
+}
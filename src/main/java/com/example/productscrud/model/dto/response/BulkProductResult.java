@@ -0,0 +1,18 @@
+package com.example.productscrud.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkProductResult {
+    private int index;
+    private boolean created;
+    private ProductResponse product;
+    private String errorCode;
+    private String errorMessage;
+}
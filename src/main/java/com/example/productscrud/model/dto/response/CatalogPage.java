@@ -0,0 +1,11 @@
+package com.example.productscrud.model.dto.response;
+
+import java.util.List;
+
+/**
+ * A product listing together with the catalog generation read in the same transaction, just before it.
+ * On a replica both come from the same replayed state, so the generation never claims newer data than
+ * the page holds.
+ */
+public record CatalogPage(PaginationResponse<List<ProductResponse>> page, long generation) {
+}
@@ -0,0 +1,27 @@
+package com.example.productscrud.model.dto.response;
+
+import com.example.productscrud.model.enumeration.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private ImportJobStatus status;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+    private String failureReason;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
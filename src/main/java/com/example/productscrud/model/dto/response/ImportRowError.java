@@ -0,0 +1,13 @@
+package com.example.productscrud.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowError {
+    private long row;
+    private String message;
+}
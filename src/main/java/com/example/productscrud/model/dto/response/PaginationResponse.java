@@ -1,5 +1,6 @@
 package com.example.productscrud.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +16,6 @@ public class PaginationResponse<T> {
     private Integer totalItems;
     private Integer totalPages;
     private T items;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
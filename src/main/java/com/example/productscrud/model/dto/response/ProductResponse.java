@@ -24,4 +24,5 @@ public class ProductResponse {
     private ProductStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
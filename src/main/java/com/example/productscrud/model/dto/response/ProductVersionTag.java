@@ -0,0 +1,38 @@
+package com.example.productscrud.model.dto.response;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The two columns a product's strong ETag is built from, small enough to read without loading the row.
+ * Timestamps are cut to microseconds so the tag matches what PostgreSQL stores.
+ */
+public record ProductVersionTag(Long version, LocalDateTime updatedAt) {
+
+    private static final String PREFIX = "\"v";
+
+    public static ProductVersionTag of(ProductResponse product) {
+        return new ProductVersionTag(product.getVersion(), product.getUpdatedAt());
+    }
+
+    public String etag() {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+        return PREFIX + version + '-' + Long.toHexString(micros) + '"';
+    }
+
+    /**
+     * @return the version encoded in an ETag produced by {@link #etag()}, or {@code null} if it is not one of ours
+     */
+    public static Long versionOf(String etag) {
+        String tag = etag.trim();
+        int dash = tag.indexOf('-');
+        if (!tag.startsWith(PREFIX) || dash < 0) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(PREFIX.length(), dash));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
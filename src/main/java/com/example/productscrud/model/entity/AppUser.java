@@ -1,5 +1,7 @@
 package com.example.productscrud.model.entity;
 
+import com.example.productscrud.cache.AppUserCacheInvalidator;
+import com.example.productscrud.jwt.TokenVersionListener;
 import com.example.productscrud.model.enumeration.AppUserRole;
 import jakarta.persistence.*;
 import lombok.*;
@@ -13,6 +15,7 @@ import java.util.*;
 
 @Entity
 @Table(name = "app_user")   // ← explicit table name is good practice
+@EntityListeners({AppUserCacheInvalidator.class, TokenVersionListener.class})
 @Getter
 @Setter
 @Builder
@@ -43,6 +46,17 @@ public class AppUser implements UserDetails {
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean isActive = false;     // ← new field
 
+    // Signed into stateless tokens; bumped by TokenVersionListener when roles, activation or lock change
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
+    @Transient
+    private Integer loadedAuthorityFingerprint;
+
+    public int authorityFingerprint() {
+        return Objects.hash(roles, isActive, accountLockedUntil);
+    }
+
 
     // Optional: helper methods
     public void activate() {
@@ -0,0 +1,25 @@
+package com.example.productscrud.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter rows behind {@link com.example.productscrud.cache.CatalogGeneration}, which sums them.
+ * Mapped only so ddl-auto creates the table; the rows are read and bumped with plain SQL.
+ */
+@Entity
+@Table(name = "catalog_generation")
+@Getter
+@NoArgsConstructor
+public class CatalogGenerationRow {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long value;
+}
@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_internal_id", columnList = "created_at, internal_id")
+})
 @Getter
 @Setter
 @Builder
@@ -24,8 +26,13 @@ public class Product extends BaseEntityAudit {
     @Id
     @GeneratedValue
     private UUID internalId;
-    @Column(nullable = false, unique = true, updatable = false)
+    // Display form of externalSeq; not indexed, nothing looks products up by it
+    @Column(nullable = false, updatable = false)
     private String externalId;
+    // Numeric key behind externalId; lookups go through this column. Declared nullable so ddl-auto can add it
+    // to a populated table; ProductExternalSeqMigration backfills it and sets NOT NULL on startup
+    @Column(name = "external_seq", unique = true, updatable = false)
+    private Long externalSeq;
     @Column(length = 50, nullable = false, unique = true)
     private String name;
     @Column( length = 50, nullable = false, unique = true)
@@ -45,6 +52,10 @@ public class Product extends BaseEntityAudit {
     @Column(nullable = false, length = 20)
     private ProductStatus status;
 
+    // Bumped on every write; a stale version means another writer got there first
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 
     public ProductResponse toResponse() {
         return ProductResponse.builder()
@@ -57,6 +68,7 @@ public class Product extends BaseEntityAudit {
                 .status(this.status)
                 .createdAt(super.getCreatedAt())
                 .updatedAt(super.getUpdatedAt())
+                .version(this.version)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.productscrud.model.enumeration;
+
+// How totalItems is produced for a search page: COUNT(*), planner estimate, or not at all
+public enum CountMode {
+    EXACT, ESTIMATE, NONE
+}
@@ -0,0 +1,5 @@
+package com.example.productscrud.model.enumeration;
+
+public enum ImportJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,5 @@
+package com.example.productscrud.model.enumeration;
+
+public enum PaginationMode {
+    OFFSET, CURSOR
+}
@@ -17,7 +17,9 @@ public enum AuthResponseCode implements ResponseCode {
 
     BAD_REQUEST("BAD_REQUEST", "Invalid request data.", HttpStatus.BAD_REQUEST),
     INTERNAL_SERVER_ERROR("INTERNAL_SERVER_ERROR", "An unexpected error occurred.", HttpStatus.INTERNAL_SERVER_ERROR),
-    ACCOUNT_LOCKED("ACCOUNT_LOCKED", "Account temporarily locked due to multiple failed login attempts", HttpStatus.FORBIDDEN);
+    ACCOUNT_LOCKED("ACCOUNT_LOCKED", "Account temporarily locked due to multiple failed login attempts", HttpStatus.FORBIDDEN),
+    TOO_MANY_LOGIN_ATTEMPTS("AUTH_TOO_MANY_ATTEMPTS", "Too many failed login attempts from this address. Please try again later.", HttpStatus.TOO_MANY_REQUESTS),
+    LOGIN_BUSY("AUTH_LOGIN_BUSY", "Too many logins in progress. Please retry shortly.", HttpStatus.SERVICE_UNAVAILABLE);
 
     private final String code;
     private final String defaultMessage;
@@ -0,0 +1,18 @@
+package com.example.productscrud.model.enumeration.code;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@RequiredArgsConstructor
+public enum CommonResponseCode implements ResponseCode {
+
+    // ── Server errors ───────────────────────────────────────────────────────────
+    DATABASE_BUSY("DATABASE_BUSY", "The service is busy. Please retry shortly.", HttpStatus.SERVICE_UNAVAILABLE),
+    SERVER_BUSY("SERVER_BUSY", "The service is at capacity. Please retry shortly.", HttpStatus.SERVICE_UNAVAILABLE);
+
+    private final String code;
+    private final String defaultMessage;
+    private final HttpStatus httpStatus;
+}
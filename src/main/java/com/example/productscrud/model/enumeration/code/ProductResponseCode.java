@@ -13,12 +13,25 @@ public enum ProductResponseCode implements ResponseCode {
     PRODUCT_UPDATED("PRODUCT_UPDATED", "Product updated successfully", HttpStatus.OK),
     PRODUCT_DELETED("SUCCESS", "Product deleted successfully", HttpStatus.OK),
     PRODUCT_FOUND("PRODUCT_FOUND", "Product retrieved successfully", HttpStatus.OK),
+    PRODUCTS_BULK_PROCESSED("PRODUCTS_BULK_PROCESSED", "Bulk create processed", HttpStatus.OK),
+    PRODUCT_IMPORT_ACCEPTED("PRODUCT_IMPORT_ACCEPTED", "Import accepted and queued", HttpStatus.ACCEPTED),
+    IMPORT_JOB_FOUND("IMPORT_JOB_FOUND", "Import job retrieved successfully", HttpStatus.OK),
     PRODUCTS_LISTED("PRODUCTS_LISTED", "Products retrieved successfully", HttpStatus.OK),
 
     // ── Client errors ───────────────────────────────────────────────────────────
     PRODUCT_NOT_FOUND("PRODUCT_NOT_FOUND", "Product not found", HttpStatus.NOT_FOUND),
     PRODUCT_ALREADY_EXISTS("PRODUCT_ALREADY_EXISTS", "Code already exists", HttpStatus.CONFLICT),
+    PRODUCT_VERSION_CONFLICT("PRODUCT_VERSION_CONFLICT", "Product was modified by another request. Reload and retry.", HttpStatus.CONFLICT),
+    PRODUCT_PRECONDITION_FAILED("PRODUCT_PRECONDITION_FAILED", "If-Match does not match the current product version", HttpStatus.PRECONDITION_FAILED),
+    PRODUCT_PRECONDITION_REQUIRED("PRODUCT_PRECONDITION_REQUIRED", "Send If-Match or the expected version to replace a product", HttpStatus.PRECONDITION_REQUIRED),
+    IDEMPOTENCY_KEY_REUSED("IDEMPOTENCY_KEY_REUSED", "Idempotency-Key was already used with a different request", HttpStatus.UNPROCESSABLE_ENTITY),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("IDEMPOTENCY_REQUEST_IN_PROGRESS", "A request with this Idempotency-Key is still being processed", HttpStatus.CONFLICT),
     PRODUCT_HAS_ACTIVE_ORDER("PRODUCT_HAS_ACTIVE_ORDERS","Product cannot be deleted because active orders exists.", HttpStatus.CONFLICT),
+    BULK_LIMIT_EXCEEDED("BULK_LIMIT_EXCEEDED", "Too many products in one bulk request", HttpStatus.BAD_REQUEST),
+    IMPORT_JOB_NOT_FOUND("IMPORT_JOB_NOT_FOUND", "Import job not found", HttpStatus.NOT_FOUND),
+    IMPORT_TOO_LARGE("IMPORT_TOO_LARGE", "Import file is too large", HttpStatus.PAYLOAD_TOO_LARGE),
+    IMPORT_BUSY("IMPORT_BUSY", "Too many imports in progress. Please retry later.", HttpStatus.SERVICE_UNAVAILABLE),
+    INVALID_CURSOR("INVALID_CURSOR", "Pagination cursor is malformed or expired", HttpStatus.BAD_REQUEST),
     PRODUCT_FETCHED("PRODUCT_FETCHED","Product fetched." , HttpStatus.OK );
     private final String code;
     private final String defaultMessage;
@@ -0,0 +1,67 @@
+package com.example.productscrud.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Finishes the move from external_id to external_seq lookups (see productExternalSeq.sql) before the
+ * web server starts: backfills external_seq on rows written before the column existed, makes it
+ * NOT NULL, and drops the unique constraint on external_id, which nothing looks up by any more.
+ * Runs after ddl-auto has added the column; every step is a no-op once done, and an advisory lock
+ * keeps nodes starting together from running it twice.
+ */
+@Component
+public class ProductExternalSeqMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExternalSeqMigration.class);
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('products.external_seq'))";
+    private static final String BACKFILL_SQL = """
+            UPDATE products
+            SET external_seq = substring(external_id FROM 5)::bigint
+            WHERE external_seq IS NULL
+            """;
+    private static final String IS_NULLABLE_SQL = """
+            SELECT NOT attnotnull FROM pg_attribute
+            WHERE attrelid = 'products'::regclass AND attname = 'external_seq'
+            """;
+    private static final String SET_NOT_NULL_SQL = "ALTER TABLE products ALTER COLUMN external_seq SET NOT NULL";
+    private static final String EXTERNAL_ID_UNIQUE_SQL = """
+            SELECT conname FROM pg_constraint
+            WHERE conrelid = 'products'::regclass AND contype = 'u'
+              AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                                  WHERE attrelid = 'products'::regclass AND attname = 'external_id')]
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductExternalSeqMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK_SQL);
+            int backfilled = jdbcTemplate.update(BACKFILL_SQL);
+            if (backfilled > 0) {
+                logger.info("Backfilled external_seq on {} product(s)", backfilled);
+            }
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_NULLABLE_SQL, Boolean.class))) {
+                jdbcTemplate.execute(SET_NOT_NULL_SQL);
+            }
+            for (String constraint : jdbcTemplate.queryForList(EXTERNAL_ID_UNIQUE_SQL, String.class)) {
+                // Identifier comes from pg_constraint, not from input
+                jdbcTemplate.execute("ALTER TABLE products DROP CONSTRAINT \"" + constraint + '"');
+                logger.info("Dropped unique constraint {} on products.external_id", constraint);
+            }
+        });
+    }
+}
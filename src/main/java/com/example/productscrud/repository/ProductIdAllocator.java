@@ -0,0 +1,104 @@
+package com.example.productscrud.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hi/lo allocator for product_seq.
+ * Each nextval reserves a block of {@code INCREMENT BY} values for this node, which are then handed out
+ * to request threads with a single atomic increment; the database is only touched once per block.
+ * Blocks never overlap, so IDs stay unique across nodes.
+ */
+@Component
+public class ProductIdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIdAllocator.class);
+
+    private record Block(AtomicLong next, long end) {
+    }
+
+    private static final Block EXHAUSTED = new Block(new AtomicLong(1), 0);
+
+    private final ProductRepository productRepository;
+    private final int configuredBlockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Block current = EXHAUSTED;
+    private volatile long blockSize;
+
+    public ProductIdAllocator(ProductRepository productRepository,
+                              @Value("${product.id.block-size:50}") int configuredBlockSize) {
+        this.productRepository = productRepository;
+        this.configuredBlockSize = configuredBlockSize;
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            long value = block.next().getAndIncrement();
+            if (value <= block.end()) {
+                return value;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Reserves {@code count} IDs at once, fetching every block they need in a single round trip.
+     */
+    public long[] allocate(int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        long size = blockSize();
+        int blocks = (int) ((count + size - 1) / size);
+        List<Long> starts = productRepository.nextProductSequenceBlocks(blocks);
+        int i = 0;
+        for (Long start : starts) {
+            for (long value = start; value < start + size && i < count; value++) {
+                ids[i++] = value;
+            }
+        }
+        return ids;
+    }
+
+    // A ReentrantLock rather than synchronized: a virtual thread blocked on the DB inside a
+    // synchronized block would pin its carrier thread
+    private void refill(Block exhausted) {
+        lock.lock();
+        try {
+            // Another thread may already have swapped in a fresh block
+            if (current == exhausted) {
+                long start = productRepository.nextProductSequence();
+                current = new Block(new AtomicLong(start), start + blockSize() - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long blockSize() {
+        lock.lock();
+        try {
+            if (blockSize == 0) {
+                // The sequence increment is the source of truth; a mismatch would hand out overlapping IDs
+                Long increment = productRepository.productSequenceIncrement();
+                long actual = increment != null && increment > 0 ? increment : 1;
+                if (actual != configuredBlockSize) {
+                    logger.warn("product_seq INCREMENT BY is {} but product.id.block-size is {}; using {}. See productSequence.sql",
+                            actual, configuredBlockSize, actual);
+                }
+                blockSize = actual;
+            }
+            return blockSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.productscrud.repository;
+
+/**
+ * Maps between the numeric product_seq value stored in {@code products.external_seq} and the public
+ * {@code prd_NNNN} form. Values are zero-padded to at least four digits and simply grow wider after 9999.
+ * Decoding only accepts the canonical encoding, so every public ID maps to exactly one row and back.
+ */
+public final class ProductIdCodec {
+
+    public static final String PREFIX = "prd_";
+    private static final int MIN_DIGITS = 4;
+    // 18 digits always fit in a long
+    private static final int MAX_DIGITS = 18;
+
+    private ProductIdCodec() {
+    }
+
+    public static String encode(long seq) {
+        if (seq < 0) {
+            throw new IllegalArgumentException("Product sequence must not be negative: " + seq);
+        }
+        int digits = Math.max(MIN_DIGITS, digitCount(seq));
+        char[] chars = new char[PREFIX.length() + digits];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + seq % 10);
+            seq /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the sequence value, or {@code -1} when {@code id} is not an ID this codec could have produced
+     */
+    public static long decode(String id) {
+        if (id == null || !id.startsWith(PREFIX)) {
+            return -1;
+        }
+        int digits = id.length() - PREFIX.length();
+        if (digits < MIN_DIGITS || digits > MAX_DIGITS) {
+            return -1;
+        }
+        // Wider than the minimum means no padding, so "prd_01234" is not an alias of "prd_1234"
+        if (digits > MIN_DIGITS && id.charAt(PREFIX.length()) == '0') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
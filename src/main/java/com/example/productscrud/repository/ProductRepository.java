@@ -1,31 +1,186 @@
 package com.example.productscrud.repository;
 
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.ProductVersionTag;
 import com.example.productscrud.model.entity.Product;
 import com.example.productscrud.model.enumeration.ProductStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductWriteRepository {
     boolean existsByCode(String code);
 
-    boolean existsByCodeAndExternalIdNot(String code, String id);
     @Query(value = "SELECT nextval('product_seq')", nativeQuery = true)
     Long nextProductSequence();
 
-    Optional<Product> findByExternalId(String id);
+    @Query(value = "SELECT nextval('product_seq') FROM generate_series(1, :blocks)", nativeQuery = true)
+    List<Long> nextProductSequenceBlocks(@Param("blocks") int blocks);
 
-    // Search by Name OR Code AND Status
-    Page<Product> findByNameContainingIgnoreCaseOrCodeContainingIgnoreCaseAndStatus(
-            String name, String code, ProductStatus status, Pageable pageable);
+    @Query(value = "SELECT increment_by FROM pg_sequences WHERE sequencename = 'product_seq'", nativeQuery = true)
+    Long productSequenceIncrement();
 
-    // Search by Name OR Code
-    Page<Product> findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(
-            String name, String code, Pageable pageable);
+    Optional<Product> findByExternalSeq(long externalSeq);
 
-    Page<Product> findByStatus(ProductStatus status, Pageable pageable);
+    boolean existsByExternalSeq(long externalSeq);
+
+    // Enough to answer a conditional GET without loading the row
+    @Query("""
+            SELECT new com.example.productscrud.model.dto.response.ProductVersionTag(p.version, p.updatedAt)
+            FROM Product p WHERE p.externalSeq = :externalSeq
+            """)
+    Optional<ProductVersionTag> findVersionTagByExternalSeq(@Param("externalSeq") long externalSeq);
+
+    // Create in one statement: an empty result means the code is already taken
+    @Transactional
+    @Query(value = """
+            INSERT INTO products (internal_id, external_id, external_seq, code, name, description, price, currency,
+                                  status, version, created_at, updated_at)
+            VALUES (gen_random_uuid(), :externalId, :externalSeq, :code, :name, :description, :price, :currency,
+                    :status, 0, now(), now())
+            ON CONFLICT (code) DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Product> insertIfCodeAbsent(@Param("externalId") String externalId,
+                                         @Param("externalSeq") long externalSeq,
+                                         @Param("code") String code,
+                                         @Param("name") String name,
+                                         @Param("description") String description,
+                                         @Param("price") BigDecimal price,
+                                         @Param("currency") String currency,
+                                         @Param("status") String status);
+
+    // One round trip to find which of the incoming codes/names are already taken
+    @Query("SELECT p.code, p.name FROM Product p WHERE p.code IN :codes OR p.name IN :names")
+    List<Object[]> findTakenCodesAndNames(@Param("codes") Collection<String> codes,
+                                          @Param("names") Collection<String> names);
+
+    // Search by Name OR Code (optionally AND Status), served by the pg_trgm GIN indexes in productSearch.sql
+    String TRIGRAM_SEARCH_WHERE = """
+            WHERE (p.name ILIKE CONCAT('%', :q, '%') OR p.code ILIKE CONCAT('%', :q, '%'))
+              AND (CAST(:status AS varchar) IS NULL OR p.status = CAST(:status AS varchar))
+            """;
+    String TRIGRAM_SEARCH = "SELECT p.* FROM products p " + TRIGRAM_SEARCH_WHERE + """
+            ORDER BY GREATEST(similarity(p.name, :q), similarity(p.code, :q)) DESC,
+                     p.created_at, p.internal_id
+            """;
+
+    @Query(value = TRIGRAM_SEARCH,
+            countQuery = "SELECT count(*) FROM products p " + TRIGRAM_SEARCH_WHERE,
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Page<Product> searchByTrigram(@Param("q") String q, @Param("status") String status, Pageable pageable);
+
+    // Same search without the count: one extra row is fetched to tell whether a next page exists
+    @Query(value = TRIGRAM_SEARCH, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Slice<Product> searchSliceByTrigram(@Param("q") String q, @Param("status") String status, Pageable pageable);
+
+    // Source of truth for ProductCountService; runs only on reconcile
+    @Query("SELECT p.status, count(p) FROM Product p GROUP BY p.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Read paths project straight into the DTO: no managed entity, no dirty-checking snapshot, no mapping pass.
+    // Listings are slices; their totals come from ProductCountService instead of a COUNT(*) per page
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new com.example.productscrud.model.dto.response.ProductResponse(
+                p.externalId, p.code, p.name, p.description, p.price, p.currency, p.status,
+                p.createdAt, p.updatedAt, p.version)
+            FROM Product p WHERE p.externalSeq = :externalSeq
+            """)
+    Optional<ProductResponse> findResponseByExternalSeq(@Param("externalSeq") long externalSeq);
+
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT new com.example.productscrud.model.dto.response.ProductResponse(
+                p.externalId, p.code, p.name, p.description, p.price, p.currency, p.status,
+                p.createdAt, p.updatedAt, p.version)
+            FROM Product p
+            """)
+    Slice<ProductResponse> findAllResponses(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT new com.example.productscrud.model.dto.response.ProductResponse(
+                p.externalId, p.code, p.name, p.description, p.price, p.currency, p.status,
+                p.createdAt, p.updatedAt, p.version)
+            FROM Product p WHERE p.status = :status
+            """)
+    Slice<ProductResponse> findResponsesByStatus(@Param("status") ProductStatus status, Pageable pageable);
+
+    // Full export: server-side cursor, entities are read-only and detached by the caller as it goes
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT p FROM Product p
+            WHERE (:status IS NULL OR p.status = :status)
+            ORDER BY p.createdAt ASC, p.internalId ASC
+            """)
+    Stream<Product> streamAllByStatus(@Param("status") ProductStatus status);
+
+    // Keyset pagination: seek past (created_at, internal_id) instead of OFFSET, no COUNT query.
+    // The row-value comparison is a single range condition on idx_products_created_at_internal_id;
+    // the first page has no seek condition at all
+    String KEYSET_WHERE = """
+            WHERE (CAST(:status AS varchar) IS NULL OR p.status = CAST(:status AS varchar))
+              AND (CAST(:q AS varchar) IS NULL
+                   OR p.name ILIKE CONCAT('%', :q, '%')
+                   OR p.code ILIKE CONCAT('%', :q, '%'))
+            """;
+
+    @Query(value = "SELECT p.* FROM products p " + KEYSET_WHERE + """
+            ORDER BY p.created_at ASC, p.internal_id ASC
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findKeysetFirstPageAsc(@Param("q") String q,
+                                         @Param("status") String status,
+                                         Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM products p " + KEYSET_WHERE + """
+              AND (p.created_at, p.internal_id) > (:createdAt, :internalId)
+            ORDER BY p.created_at ASC, p.internal_id ASC
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findKeysetPageAsc(@Param("q") String q,
+                                    @Param("status") String status,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("internalId") UUID internalId,
+                                    Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM products p " + KEYSET_WHERE + """
+            ORDER BY p.created_at DESC, p.internal_id DESC
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findKeysetFirstPageDesc(@Param("q") String q,
+                                          @Param("status") String status,
+                                          Pageable pageable);
+
+    @Query(value = "SELECT p.* FROM products p " + KEYSET_WHERE + """
+              AND (p.created_at, p.internal_id) < (:createdAt, :internalId)
+            ORDER BY p.created_at DESC, p.internal_id DESC
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findKeysetPageDesc(@Param("q") String q,
+                                     @Param("status") String status,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("internalId") UUID internalId,
+                                     Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package com.example.productscrud.repository;
+
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.enumeration.ProductStatus;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Single-statement product writes: the WHERE clause is the version check and RETURNING replaces the re-read.
+ * An empty result means no row matched, either because it is gone or because the version moved.
+ * A null expected version skips the check.
+ */
+public interface ProductWriteRepository {
+
+    // The row as written, and the status it had before, for the per-status counts
+    record UpdatedProduct(ProductResponse product, ProductStatus previousStatus) {
+    }
+
+    // Null price or status leaves the column as it is
+    Optional<UpdatedProduct> patchReturning(long externalSeq, BigDecimal price, String status, Long version);
+
+    // Code uniqueness is left to the constraint; a clash surfaces as DataIntegrityViolationException
+    Optional<UpdatedProduct> updateReturning(long externalSeq, String code, String description, BigDecimal price,
+                                             String currency, String status, Long version);
+}
@@ -0,0 +1,103 @@
+package com.example.productscrud.repository;
+
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs through JdbcTemplate on the transaction's connection and maps straight to the DTO, so the
+ * persistence context never holds a Product that the UPDATE has made stale. Parameters are bound with
+ * explicit SQL types, which is what lets a null compare without a CAST in the statement.
+ */
+@RequiredArgsConstructor
+public class ProductWriteRepositoryImpl implements ProductWriteRepository {
+
+    // The FROM subselect locks the row and reads its status before the SET applies, so the previous
+    // status comes back with the new row instead of needing a SELECT ... FOR UPDATE of its own
+    private static final String LOCK_PREVIOUS = """
+            FROM (SELECT internal_id, status FROM products WHERE external_seq = ? FOR UPDATE) old
+            WHERE p.internal_id = old.internal_id
+              AND (? IS NULL OR p.version = ?)
+            RETURNING p.external_id, p.code, p.name, p.description, p.price, p.currency, p.status,
+                      p.created_at, p.updated_at, p.version, old.status AS previous_status
+            """;
+
+    private static final String PATCH_SQL = """
+            UPDATE products p
+            SET price      = COALESCE(?, p.price),
+                status     = COALESCE(?, p.status),
+                version    = p.version + 1,
+                updated_at = now()
+            """ + LOCK_PREVIOUS;
+
+    private static final String UPDATE_SQL = """
+            UPDATE products p
+            SET code        = ?,
+                description = ?,
+                price       = ?,
+                currency    = ?,
+                status      = ?,
+                version     = p.version + 1,
+                updated_at  = now()
+            """ + LOCK_PREVIOUS;
+
+    private static final RowMapper<UpdatedProduct> UPDATED = (rs, rowNum) -> new UpdatedProduct(
+            ProductResponse.builder()
+                    .id(rs.getString("external_id"))
+                    .code(rs.getString("code"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .price(rs.getBigDecimal("price"))
+                    .currency(Currency.valueOf(rs.getString("currency")))
+                    .status(ProductStatus.valueOf(rs.getString("status")))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .version(rs.getLong("version"))
+                    .build(),
+            ProductStatus.valueOf(rs.getString("previous_status")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<UpdatedProduct> patchReturning(long externalSeq, BigDecimal price, String status, Long version) {
+        List<UpdatedProduct> rows = jdbcTemplate.query(PATCH_SQL, ps -> {
+            ps.setObject(1, price, Types.NUMERIC);
+            ps.setObject(2, status, Types.VARCHAR);
+            ps.setLong(3, externalSeq);
+            setVersion(ps, 4, version);
+        }, UPDATED);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Optional<UpdatedProduct> updateReturning(long externalSeq, String code, String description, BigDecimal price,
+                                                    String currency, String status, Long version) {
+        List<UpdatedProduct> rows = jdbcTemplate.query(UPDATE_SQL, ps -> {
+            ps.setString(1, code);
+            ps.setObject(2, description, Types.VARCHAR);
+            ps.setBigDecimal(3, price);
+            ps.setString(4, currency);
+            ps.setString(5, status);
+            ps.setLong(6, externalSeq);
+            setVersion(ps, 7, version);
+        }, UPDATED);
+        return rows.stream().findFirst();
+    }
+
+    // Bound twice: once for the IS NULL test, once for the comparison
+    private static void setVersion(PreparedStatement ps, int index, Long version) throws SQLException {
+        ps.setObject(index, version, Types.BIGINT);
+        ps.setObject(index + 1, version, Types.BIGINT);
+    }
+}
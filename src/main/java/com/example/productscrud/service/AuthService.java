@@ -7,7 +7,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 
 public interface AuthService extends UserDetailsService {
 
-    AuthResponse login(AuthRequest request);
+    AuthResponse login(AuthRequest request, String clientIp);
 
     AuthResponse register(AppUserRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.productscrud.service;
+
+import com.example.productscrud.model.enumeration.ProductStatus;
+
+public interface ProductCountService {
+
+    // Products with the given status, or all products when status is null
+    long count(ProductStatus status);
+
+    void adjust(ProductStatus status, long delta);
+
+    void moved(ProductStatus from, ProductStatus to);
+
+    // Writes whose effect on the counts is unknown (imports) trigger a background reconcile
+    void invalidate();
+
+    long estimateSearch(String q, ProductStatus status);
+}
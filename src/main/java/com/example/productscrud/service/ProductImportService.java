@@ -0,0 +1,14 @@
+package com.example.productscrud.service;
+
+import com.example.productscrud.model.dto.response.ImportJobResponse;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ImportJobResponse startImport(CatalogFormat format, InputStream body) throws IOException;
+
+    ImportJobResponse getJob(String jobId);
+}
@@ -2,32 +2,55 @@ package com.example.productscrud.service;
 
 import com.example.productscrud.model.dto.request.PartialProductUpdateRequest;
 import com.example.productscrud.model.dto.request.ProductRequest;
-import com.example.productscrud.model.dto.response.PaginationResponse;
+import com.example.productscrud.model.dto.response.BulkCreateResponse;
+import com.example.productscrud.model.dto.response.CatalogPage;
 import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.ProductVersionTag;
 import com.example.productscrud.model.entity.Product;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.CountMode;
 import com.example.productscrud.model.enumeration.ProductStatus;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
     ProductResponse create(ProductRequest request);
 
+    BulkCreateResponse createAll(List<ProductRequest> requests);
+
+    ProductVersionTag getProductVersionTag(String id);
+
     ProductResponse getProductById(String id);
 
     Product findProductByIdInternal(String id);
 
-    ProductResponse updateProductById(String id, ProductRequest request);
+    // ifMatchVersion comes from an If-Match header and takes precedence over the body version (412 vs 409)
+    ProductResponse updateProductById(String id, ProductRequest request, Long ifMatchVersion);
 
-    ProductResponse partialUpdateProductById(String id, PartialProductUpdateRequest request);
+    ProductResponse partialUpdateProductById(String id, PartialProductUpdateRequest request, Long ifMatchVersion);
 
-    void deleteProductById(String id);
+    void deleteProductById(String id, Long ifMatchVersion);
 
-    PaginationResponse<List<ProductResponse>> getAllProducts(
+    // The page and the generation it was read at, for the list ETag
+    CatalogPage getAllProducts(
             String q,
             ProductStatus status,
             int page,
             int size,
+            Sort.Direction direction,
+            CountMode countMode
+    );
+
+    void exportProducts(ProductStatus status, CatalogFormat format, OutputStream out) throws IOException;
+
+    CatalogPage getAllProductsByCursor(
+            String q,
+            ProductStatus status,
+            String cursor,
+            int size,
             Sort.Direction direction
     );
 }
@@ -1,5 +1,6 @@
 package com.example.productscrud.service.impl;
 
+import com.example.productscrud.cache.AuthPrincipalCache;
 import com.example.productscrud.exception.ApiException;
 import com.example.productscrud.jwt.JwtService;
 import com.example.productscrud.model.dto.request.AppUserRequest;
@@ -21,7 +22,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -34,31 +34,48 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final AuthPrincipalCache principalCache;
+    private final PasswordVerificationStage passwordVerificationStage;
+    private final LoginAttemptTracker loginAttemptTracker;
 
     public AuthServiceImpl(AppUserRepository appUserRepository,
                            PasswordEncoder passwordEncoder,
                            JwtService jwtService,
-                           @Lazy AuthenticationManager authenticationManager) {
+                           @Lazy AuthenticationManager authenticationManager,
+                           AuthPrincipalCache principalCache,
+                           PasswordVerificationStage passwordVerificationStage,
+                           LoginAttemptTracker loginAttemptTracker) {
         this.appUserRepository = appUserRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.principalCache = principalCache;
+        this.passwordVerificationStage = passwordVerificationStage;
+        this.loginAttemptTracker = loginAttemptTracker;
     }
 
     @Override
-    public AuthResponse login(AuthRequest request) {
+    public AuthResponse login(AuthRequest request, String clientIp) {
         String username = request.getUsername();
 
+        // 0. Reject sources with too many recent failures before any lookup or BCrypt work
+        if (loginAttemptTracker.isSourceBlocked(clientIp)) {
+            throw new ApiException(AuthResponseCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+
         // 1. Find user first (needed for lock check & increment)
         AppUser user = appUserRepository.findByUsername(username)
-                .orElseThrow(() -> new ApiException(AuthResponseCode.INVALID_CREDENTIALS));
+                .orElseThrow(() -> {
+                    loginAttemptTracker.recordSourceFailure(clientIp);
+                    return new ApiException(AuthResponseCode.INVALID_CREDENTIALS);
+                });
 
-        // 2. Auto-unlock if lock period has expired
-        user.autoUnlockIfPossible();
+        // 2. Attempt state is tracked in memory (auto-unlocks once the lock period has expired)
+        LoginAttemptTracker.Attempts attempts = loginAttemptTracker.current(user);
 
         // 3. Check if still locked
-        if (user.isLocked()) {
-            long minutesLeft = (user.getAccountLockedUntil().getTime() - System.currentTimeMillis()) / 60000 + 1;
+        if (attempts.isLocked()) {
+            long minutesLeft = (attempts.lockedUntil().getTime() - System.currentTimeMillis()) / 60000 + 1;
             throw new ApiException(
                     AuthResponseCode.ACCOUNT_LOCKED,
                     "Account is temporarily locked due to too many failed attempts. " +
@@ -73,39 +90,34 @@ public class AuthServiceImpl implements AuthService {
         }
 
         try {
-            // 4. Attempt authentication (now safe — account is enabled)
-            authenticationManager.authenticate(
+            // 4. Attempt authentication (now safe — account is enabled) on the bounded BCrypt stage
+            passwordVerificationStage.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             username,
                             request.getPassword()
                     )
-            );
+            ));
 
-            // 5. Success → reset failed attempts & lock
-            user.resetFailedAttempts();
-            appUserRepository.save(user);
+            // 5. Success → reset failed attempts & lock (written back only if something changed)
+            loginAttemptTracker.recordSuccess(user);
 
         } catch (BadCredentialsException e) {
             // 6. Wrong password → increment attempts
-            user.incrementFailedAttempts();
-
-            int currentAttempts = user.getFailedLoginAttempts();
+            loginAttemptTracker.recordSourceFailure(clientIp);
+            LoginAttemptTracker.Attempts failed = loginAttemptTracker.recordFailure(user);
 
-            if (currentAttempts >= 5) {
-                // Lock for 30 minutes
-                Date lockUntil = new Date(System.currentTimeMillis() + 30L * 60 * 1000);
-                user.setAccountLockedUntil(lockUntil);
-                appUserRepository.save(user);
+            int currentAttempts = failed.failedAttempts();
 
+            if (failed.isLocked()) {
+                // Locked for 30 minutes
                 throw new ApiException(
                         AuthResponseCode.ACCOUNT_LOCKED,
                         "Too many failed login attempts. Account locked for 30 minutes."
                 );
             } else {
-                appUserRepository.save(user);
                 throw new ApiException(
                         AuthResponseCode.INVALID_CREDENTIALS,
-                        "Invalid username or password. Attempt " + currentAttempts + "/5."
+                        "Invalid username or password. Attempt " + currentAttempts + "/" + LoginAttemptTracker.MAX_FAILED_ATTEMPTS + "."
                 );
             }
         }
@@ -161,7 +173,7 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return appUserRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return principalCache.get(username, name -> appUserRepository.findByUsername(name)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + name)));
     }
 }
\ No newline at end of file
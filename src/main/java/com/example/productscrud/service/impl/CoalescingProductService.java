@@ -0,0 +1,135 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.cache.CatalogGeneration;
+import com.example.productscrud.cache.ReadYourWritesTracker;
+import com.example.productscrud.cache.SingleFlight;
+import com.example.productscrud.model.dto.request.PartialProductUpdateRequest;
+import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.dto.response.BulkCreateResponse;
+import com.example.productscrud.model.dto.response.CatalogPage;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.ProductVersionTag;
+import com.example.productscrud.model.entity.Product;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.CountMode;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.service.ProductService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Single-flight in front of the two hot reads: identical concurrent calls share one query and its result.
+ * Sits outside ProductServiceImpl's transactions so waiting callers hold no connection.
+ * <p>
+ * Every key carries the count of catalog writes committed through this instance, so a call that starts
+ * after such a write never joins a query that began before it. It is kept in memory rather than read from
+ * the primary, which would cost every call a round trip; a write on another instance can be missed for
+ * as long as one in-flight query, less than the replica lag those readers already accept.
+ * Callers inside their read-your-writes window bypass coalescing, since the shared query may be on a replica.
+ * The returned objects are shared between callers and must not be modified.
+ */
+@Service
+@Primary
+public class CoalescingProductService implements ProductService {
+
+    private record ListKey(String q, ProductStatus status, int page, int size, Sort.Direction direction,
+                           CountMode countMode, long generation) {
+    }
+
+    private record IdKey(String id, long generation) {
+    }
+
+    private final ProductService delegate;
+    private final CatalogGeneration catalogGeneration;
+    private final ReadYourWritesTracker readYourWrites;
+    private final SingleFlight<IdKey, ProductResponse> byId = new SingleFlight<>();
+    private final SingleFlight<ListKey, CatalogPage> lists = new SingleFlight<>();
+
+    public CoalescingProductService(@Qualifier("productServiceImpl") ProductService delegate,
+                                    CatalogGeneration catalogGeneration,
+                                    ReadYourWritesTracker readYourWrites) {
+        this.delegate = delegate;
+        this.catalogGeneration = catalogGeneration;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public ProductResponse getProductById(String id) {
+        if (readYourWrites.isActiveForCurrentUser()) {
+            return delegate.getProductById(id);
+        }
+        return byId.execute(new IdKey(id, catalogGeneration.localWrites()), () -> delegate.getProductById(id));
+    }
+
+    @Override
+    public CatalogPage getAllProducts(String q, ProductStatus status, int page, int size,
+                                      Sort.Direction direction, CountMode countMode) {
+        if (readYourWrites.isActiveForCurrentUser()) {
+            return delegate.getAllProducts(q, status, page, size, direction, countMode);
+        }
+        ListKey key = new ListKey(q, status, page, size, direction, countMode, catalogGeneration.localWrites());
+        return lists.execute(key, () -> delegate.getAllProducts(q, status, page, size, direction, countMode));
+    }
+
+    public SingleFlight<?, ?> getByIdFlights() {
+        return byId;
+    }
+
+    public SingleFlight<?, ?> getListFlights() {
+        return lists;
+    }
+
+    // Everything else passes straight through
+
+    @Override
+    public ProductResponse create(ProductRequest request) {
+        return delegate.create(request);
+    }
+
+    @Override
+    public BulkCreateResponse createAll(List<ProductRequest> requests) {
+        return delegate.createAll(requests);
+    }
+
+    @Override
+    public ProductVersionTag getProductVersionTag(String id) {
+        return delegate.getProductVersionTag(id);
+    }
+
+    @Override
+    public Product findProductByIdInternal(String id) {
+        return delegate.findProductByIdInternal(id);
+    }
+
+    @Override
+    public ProductResponse updateProductById(String id, ProductRequest request, Long ifMatchVersion) {
+        return delegate.updateProductById(id, request, ifMatchVersion);
+    }
+
+    @Override
+    public ProductResponse partialUpdateProductById(String id, PartialProductUpdateRequest request, Long ifMatchVersion) {
+        return delegate.partialUpdateProductById(id, request, ifMatchVersion);
+    }
+
+    @Override
+    public void deleteProductById(String id, Long ifMatchVersion) {
+        delegate.deleteProductById(id, ifMatchVersion);
+    }
+
+    @Override
+    public void exportProducts(ProductStatus status, CatalogFormat format, OutputStream out) throws IOException {
+        delegate.exportProducts(status, format, out);
+    }
+
+    @Override
+    public CatalogPage getAllProductsByCursor(String q, ProductStatus status, String cursor,
+                                              int size, Sort.Direction direction) {
+        return delegate.getAllProductsByCursor(q, status, cursor, size, direction);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.dto.response.ImportJobResponse;
+import com.example.productscrud.model.dto.response.ImportRowError;
+import com.example.productscrud.model.enumeration.ImportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable progress of one import, updated by the worker and read by status polls.
+ */
+class ImportJob {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String id;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile String failureReason;
+    private volatile LocalDateTime finishedAt;
+
+    ImportJob(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        status = ImportJobStatus.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void rowFailed(long row, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(row, message));
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    void abort(String reason) {
+        failureReason = reason;
+        finishedAt = LocalDateTime.now();
+        status = ImportJobStatus.FAILED;
+    }
+
+    ImportJobResponse toResponse() {
+        List<ImportRowError> snapshot;
+        synchronized (errors) {
+            snapshot = List.copyOf(errors);
+        }
+        long failed = rowsFailed.get();
+        return ImportJobResponse.builder()
+                .jobId(id)
+                .status(status)
+                .rowsRead(rowsRead.get())
+                .rowsImported(rowsImported.get())
+                .rowsFailed(failed)
+                .errors(snapshot)
+                .errorsTruncated(failed > snapshot.size())
+                .failureReason(failureReason)
+                .submittedAt(submittedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Incremental reader over an uploaded catalog file; yields one parsed row at a time.
+ */
+abstract class ImportRowReader {
+
+    /** Either a parsed request or the reason the row could not be parsed. */
+    record Row(long rowNo, ProductRequest request, String error) {
+    }
+
+    protected final BufferedReader reader;
+
+    protected ImportRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static ImportRowReader open(CatalogFormat format, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return format == CatalogFormat.CSV
+                ? new CsvRowReader(reader)
+                : new NdjsonRowReader(reader, objectMapper);
+    }
+
+    /**
+     * @return the next row, or {@code null} at end of input
+     */
+    abstract Row next() throws IOException;
+
+    private static final class NdjsonRowReader extends ImportRowReader {
+
+        private final ObjectMapper objectMapper;
+        private long lineNo;
+
+        private NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new Row(lineNo, objectMapper.readValue(line, ProductRequest.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(lineNo, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class CsvRowReader extends ImportRowReader {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long rowNo;
+
+        private CsvRowReader(BufferedReader reader) throws IOException {
+            super(reader);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("code", "price", "currency", "status")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV header is missing column '" + required + "'");
+                }
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            List<String> record;
+            while ((record = readRecord()) != null) {
+                rowNo++;
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    ProductRequest request = new ProductRequest(
+                            field(record, "code"),
+                            field(record, "name"),
+                            field(record, "description"),
+                            parse(record, "price", (String v) -> new BigDecimal(v)),
+                            parse(record, "currency", (String v) -> Currency.valueOf(v)),
+                            parse(record, "status", (String v) -> ProductStatus.valueOf(v)),
+                            null
+                    );
+                    return new Row(rowNo, request, null);
+                } catch (IllegalArgumentException e) {
+                    return new Row(rowNo, null, e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private <T> T parse(List<String> record, String column, Function<String, T> parser) {
+            String value = field(record, column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value '" + value + "' for field '" + column + "'");
+            }
+        }
+
+        // RFC 4180: quoted fields may contain commas, doubled quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                char ch = (char) c;
+                if (inQuotes) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    inQuotes = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (ch != '\r') {
+                    field.append(ch);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.cache.AuthPrincipalCache;
+import com.example.productscrud.model.entity.AppUser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Write-behind tracking of failed logins.
+ * Attempt counts and lock windows live in memory (one monitor per user, so unrelated users never contend)
+ * and are flushed to app_user in a single JDBC batch on a fixed delay, instead of one UPDATE per attempt.
+ * The flush writes deltas, not totals, and decides the lock in SQL, so failures counted on different
+ * instances add up instead of the last flush overwriting the others.
+ * It also keeps a per-source-IP failure window that is checked before any BCrypt work is done.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    public static final int MAX_FAILED_ATTEMPTS = 5;
+    public static final Duration LOCK_DURATION = Duration.ofMinutes(30);
+
+    // Every SET expression sees the row as it was, so the new count is spelled out each time.
+    // Parameters: attempts = (reset, now, delta); a lock that has run out counts as a reset.
+    private static final String ATTEMPTS_SQL =
+            "CASE WHEN ? OR account_locked_until <= ? THEN 0 ELSE failed_login_attempts END + ?";
+    private static final String FLUSH_SQL = "UPDATE app_user SET "
+            + "account_locked_until = CASE "
+            + "WHEN NOT ? AND account_locked_until > ? THEN account_locked_until "
+            + "WHEN " + ATTEMPTS_SQL + " >= ? THEN ? "
+            + "ELSE NULL END, "
+            // A new lock also retires the user's stateless tokens
+            + "token_version = CASE "
+            + "WHEN NOT ? AND account_locked_until > ? THEN token_version "
+            + "WHEN " + ATTEMPTS_SQL + " >= ? THEN token_version + 1 "
+            + "ELSE token_version END, "
+            + "failed_login_attempts = " + ATTEMPTS_SQL + " "
+            + "WHERE username = ?";
+
+    /** Snapshot of a user's attempt state handed back to the caller. */
+    public record Attempts(int failedAttempts, Date lockedUntil) {
+        public boolean isLocked() {
+            return lockedUntil != null && new Date().before(lockedUntil);
+        }
+    }
+
+    private static final class UserState {
+        private int failedAttempts;
+        private Date lockedUntil;
+        // What the next flush applies: clear the row first if reset, then add pendingFailures
+        private int pendingFailures;
+        private boolean reset;
+        private boolean dirty;
+        private boolean retired;
+
+        private UserState(int failedAttempts, Date lockedUntil) {
+            this.failedAttempts = failedAttempts;
+            this.lockedUntil = lockedUntil;
+        }
+
+        private void autoUnlockIfPossible() {
+            if (lockedUntil != null && new Date().after(lockedUntil)) {
+                lockedUntil = null;
+                failedAttempts = 0;
+                dirty = true;
+            }
+        }
+
+        private Attempts snapshot() {
+            return new Attempts(failedAttempts, lockedUntil);
+        }
+    }
+
+    private static final class SourceWindow {
+        private long windowStart;
+        private int failures;
+    }
+
+    private final Map<String, UserState> users = new ConcurrentHashMap<>();
+    private final Map<String, SourceWindow> sources = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthPrincipalCache principalCache;
+    private final int maxFailuresPerSource;
+    private final long sourceWindowMillis;
+
+    public LoginAttemptTracker(JdbcTemplate jdbcTemplate,
+                               AuthPrincipalCache principalCache,
+                               @Value("${auth.login-attempts.source-max-failures:20}") int maxFailuresPerSource,
+                               @Value("${auth.login-attempts.source-window:5m}") Duration sourceWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.principalCache = principalCache;
+        this.maxFailuresPerSource = maxFailuresPerSource;
+        this.sourceWindowMillis = sourceWindow.toMillis();
+    }
+
+    // ── Per-source pre-check ────────────────────────────────────────────────────
+
+    public boolean isSourceBlocked(String sourceIp) {
+        SourceWindow window = sources.get(sourceIp);
+        if (window == null) {
+            return false;
+        }
+        synchronized (window) {
+            return System.currentTimeMillis() - window.windowStart < sourceWindowMillis
+                    && window.failures >= maxFailuresPerSource;
+        }
+    }
+
+    public void recordSourceFailure(String sourceIp) {
+        SourceWindow window = sources.computeIfAbsent(sourceIp, ip -> new SourceWindow());
+        synchronized (window) {
+            long now = System.currentTimeMillis();
+            if (now - window.windowStart >= sourceWindowMillis) {
+                window.windowStart = now;
+                window.failures = 0;
+            }
+            window.failures++;
+        }
+    }
+
+    // ── Per-user attempts ───────────────────────────────────────────────────────
+
+    public Attempts current(AppUser user) {
+        return withState(user, state -> {
+            state.autoUnlockIfPossible();
+            return state.snapshot();
+        });
+    }
+
+    public Attempts recordFailure(AppUser user) {
+        return withState(user, state -> {
+            state.autoUnlockIfPossible();
+            state.failedAttempts++;
+            state.pendingFailures++;
+            if (state.failedAttempts >= MAX_FAILED_ATTEMPTS) {
+                state.lockedUntil = new Date(System.currentTimeMillis() + LOCK_DURATION.toMillis());
+            }
+            state.dirty = true;
+            return state.snapshot();
+        });
+    }
+
+    public void recordSuccess(AppUser user) {
+        withState(user, state -> {
+            // Only a real change is written back; a clean login costs no UPDATE
+            if (state.failedAttempts != 0 || state.lockedUntil != null) {
+                state.failedAttempts = 0;
+                state.lockedUntil = null;
+                state.pendingFailures = 0;
+                state.reset = true;
+                state.dirty = true;
+            }
+            return state.snapshot();
+        });
+    }
+
+    private Attempts withState(AppUser user, Function<UserState, Attempts> action) {
+        while (true) {
+            UserState state = users.computeIfAbsent(user.getUsername(),
+                    username -> new UserState(user.getFailedLoginAttempts(), user.getAccountLockedUntil()));
+            synchronized (state) {
+                // A retired entry was just dropped by flush(); start again from a fresh one
+                if (!state.retired) {
+                    return action.apply(state);
+                }
+            }
+        }
+    }
+
+    // ── Write-behind flush ──────────────────────────────────────────────────────
+
+    private record Pending(String username, boolean reset, int failures) {
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-attempts.flush-interval:5s}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<Pending> flushed = new ArrayList<>();
+        long nowMillis = System.currentTimeMillis();
+        Timestamp now = new Timestamp(nowMillis);
+        Timestamp lockUntil = new Timestamp(nowMillis + LOCK_DURATION.toMillis());
+
+        users.forEach((username, state) -> {
+            synchronized (state) {
+                if (state.dirty) {
+                    boolean reset = state.reset;
+                    int failures = state.pendingFailures;
+                    batch.add(new Object[]{
+                            reset, now,
+                            reset, now, failures, MAX_FAILED_ATTEMPTS, lockUntil,
+                            reset, now,
+                            reset, now, failures, MAX_FAILED_ATTEMPTS,
+                            reset, now, failures,
+                            username
+                    });
+                    flushed.add(new Pending(username, reset, failures));
+                    state.reset = false;
+                    state.pendingFailures = 0;
+                    state.dirty = false;
+                }
+            }
+        });
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                flushed.forEach(pending -> principalCache.evict(pending.username()));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush {} login attempt record(s); will retry", batch.size(), e);
+                flushed.forEach(pending -> {
+                    UserState state = users.get(pending.username());
+                    if (state != null) {
+                        synchronized (state) {
+                            // A success since the snapshot already clears the row; the old failures no longer count
+                            if (!state.reset) {
+                                state.reset = pending.reset();
+                                state.pendingFailures += pending.failures();
+                            }
+                            state.dirty = true;
+                        }
+                    }
+                });
+                return;
+            }
+        }
+
+        // Drop every flushed entry: the next attempt starts again from the row, which now
+        // includes failures recorded by other instances (login reads the user fresh each time)
+        users.entrySet().removeIf(entry -> {
+            UserState state = entry.getValue();
+            synchronized (state) {
+                state.retired = !state.dirty;
+                return state.retired;
+            }
+        });
+        long now = System.currentTimeMillis();
+        sources.values().removeIf(window -> {
+            synchronized (window) {
+                return now - window.windowStart >= sourceWindowMillis;
+            }
+        });
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.exception.ServiceUnavailableException;
+import com.example.productscrud.model.enumeration.code.AuthResponseCode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-limited stage for BCrypt verification.
+ * Hashing runs on its own small pool with a bounded queue. The calling request thread still waits for
+ * the result, so what the stage bounds is how many Tomcat threads logins can hold: at most pool size
+ * plus queue capacity, clamped to half of {@code server.tomcat.threads.max} on platform threads.
+ * Past that the caller gets an immediate 503 and the rest of the Tomcat pool stays free for product reads.
+ */
+@Component
+public class PasswordVerificationStage {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordVerificationStage(@Value("${auth.login.threads:0}") int threads,
+                                     @Value("${auth.login.queue-capacity:64}") int queueCapacity,
+                                     @Value("${auth.login.timeout:5s}") Duration timeout,
+                                     @Value("${auth.login.retry-after:1s}") Duration retryAfter,
+                                     @Value("${server.tomcat.threads.max:200}") int tomcatThreads,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (!virtualThreads) {
+            // Every queued or running login parks one Tomcat thread; leave at least half for everything else
+            queueCapacity = Math.max(1, Math.min(queueCapacity, tomcatThreads / 2 - poolSize));
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeoutMillis = timeout.toMillis();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    public <T> T execute(Supplier<T> verification) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return verification.get();
+                } finally {
+                    hashNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException(AuthResponseCode.LOGIN_BUSY, retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Frees the queue slot if hashing has not started. BCrypt does not check interrupts,
+            // so a hash already running finishes on its pool thread regardless.
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            rejected.increment();
+            throw new ServiceUnavailableException(AuthResponseCode.LOGIN_BUSY, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            throw new ServiceUnavailableException(AuthResponseCode.LOGIN_BUSY, retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getHashNanos() {
+        return hashNanos.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.repository.ProductRepository;
+import com.example.productscrud.service.ProductCountService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-status product totals kept in memory, so listings do not pay for a COUNT(*) per page.
+ * Writes adjust them after commit; a periodic GROUP BY reconciles whatever the hooks cannot see
+ * (imports, other instances). Totals are therefore exact for this instance's own writes and otherwise
+ * at most one reconcile interval behind.
+ * <p>
+ * A reconcile never runs on a request thread: the caller already holds a connection, and the snapshot
+ * needs another, so listers waiting on it could exhaust the pool. Stale totals are served as they are
+ * while a reconcile runs in the background; before the first one has finished, count() runs the GROUP BY
+ * on the caller's own transaction instead.
+ * <p>
+ * A delta committed before the GROUP BY's snapshot but applied after it would be counted twice, and
+ * one committed after the snapshot would be lost if the snapshot overwrote it. So a reconcile only
+ * takes its result if no transaction carrying a delta was between commit and apply while it ran;
+ * otherwise it runs again.
+ */
+@Service
+public class ProductCountServiceImpl implements ProductCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCountServiceImpl.class);
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    // Same predicate as ProductRepository.searchByTrigram; only the planner's row estimate is read
+    private static final String ESTIMATE_SQL = """
+            EXPLAIN (FORMAT JSON) SELECT 1 FROM products p
+            WHERE (p.name ILIKE CONCAT('%', ?, '%') OR p.code ILIKE CONCAT('%', ?, '%'))
+            """;
+    private static final String ESTIMATE_STATUS_SQL = ESTIMATE_SQL + "  AND p.status = ?\n";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final Map<ProductStatus, AtomicLong> counts = newCounters();
+    // Deltas that have reached beforeCommit, and those that have since been applied or rolled back
+    private final AtomicLong commitsStarted = new AtomicLong();
+    private final AtomicLong commitsFinished = new AtomicLong();
+    // Applies share the read side; a reconcile takes the write side only to check and swap in its result
+    private final ReadWriteLock applyLock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Bumped by invalidate(); a reconcile whose snapshot may predate the latest bump leaves the totals stale
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+    private final ExecutorService reconciler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-count-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean loaded;
+    private volatile boolean stale = true;
+
+    public ProductCountServiceImpl(ProductRepository productRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Read-write, so the snapshot comes from the primary rather than a replica
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private static Map<ProductStatus, AtomicLong> newCounters() {
+        Map<ProductStatus, AtomicLong> map = new EnumMap<>(ProductStatus.class);
+        for (ProductStatus status : ProductStatus.values()) {
+            map.put(status, new AtomicLong());
+        }
+        return map;
+    }
+
+    @Override
+    public long count(ProductStatus status) {
+        if (stale) {
+            requestReconcile();
+        }
+        if (!loaded) {
+            return countInline(status);
+        }
+        if (status != null) {
+            return counts.get(status).get();
+        }
+        long total = 0;
+        for (AtomicLong count : counts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    @Override
+    public void adjust(ProductStatus status, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    commitsStarted.incrementAndGet();
+                }
+
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (!committing) {
+                        return;
+                    }
+                    try {
+                        if (completionStatus == STATUS_COMMITTED) {
+                            apply(status, delta);
+                        }
+                    } finally {
+                        commitsFinished.incrementAndGet();
+                    }
+                }
+            });
+        } else {
+            apply(status, delta);
+        }
+    }
+
+    @Override
+    public void moved(ProductStatus from, ProductStatus to) {
+        if (from != to) {
+            adjust(from, -1);
+            adjust(to, 1);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        stale = true;
+        requestReconcile();
+    }
+
+    // At most one queued behind the running one; more would only repeat the same GROUP BY
+    private void requestReconcile() {
+        if (reconcileQueued.compareAndSet(false, true)) {
+            try {
+                reconciler.execute(() -> {
+                    reconcileQueued.set(false);
+                    try {
+                        reconcile();
+                    } catch (RuntimeException e) {
+                        logger.warn("Product count reconcile failed; totals stay stale until the next one", e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                reconcileQueued.set(false);
+            }
+        }
+    }
+
+    // Before the first reconcile: one GROUP BY on the caller's transaction, not a second connection
+    private long countInline(ProductStatus status) {
+        long total = 0;
+        for (Map.Entry<ProductStatus, Long> entry : toMap(productRepository.countGroupedByStatus()).entrySet()) {
+            if (status == null || entry.getKey() == status) {
+                total += entry.getValue();
+            }
+        }
+        return total;
+    }
+
+    private void apply(ProductStatus status, long delta) {
+        applyLock.readLock().lock();
+        try {
+            counts.get(status).addAndGet(delta);
+        } finally {
+            applyLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.counts.reconcile-interval:PT5M}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+                long invalidated = invalidations.get();
+                // Finished is read first: a commit that starts in between shows up as started > finished
+                long finished = commitsFinished.get();
+                long started = commitsStarted.get();
+                Map<ProductStatus, Long> snapshot = snapshot();
+                boolean last = attempt == RECONCILE_ATTEMPTS;
+                applyLock.writeLock().lock();
+                try {
+                    boolean quiet = started == finished && commitsStarted.get() == started;
+                    // Out of attempts: a slightly-off total beats none at all, and the next reconcile corrects it
+                    if (quiet || (last && stale)) {
+                        for (ProductStatus status : ProductStatus.values()) {
+                            counts.get(status).set(snapshot.getOrDefault(status, 0L));
+                        }
+                        loaded = true;
+                        // An import that committed after the snapshot began asks for another round
+                        stale = invalidations.get() != invalidated;
+                        if (stale) {
+                            requestReconcile();
+                        }
+                        return;
+                    }
+                } finally {
+                    applyLock.writeLock().unlock();
+                }
+            }
+            logger.debug("Product count reconcile skipped: writes kept committing during the snapshot");
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private Map<ProductStatus, Long> snapshot() {
+        return snapshotTransaction.execute(tx -> toMap(productRepository.countGroupedByStatus()));
+    }
+
+    private static Map<ProductStatus, Long> toMap(List<Object[]> rows) {
+        Map<ProductStatus, Long> snapshot = new EnumMap<>(ProductStatus.class);
+        for (Object[] row : rows) {
+            snapshot.put((ProductStatus) row[0], (Long) row[1]);
+        }
+        return snapshot;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    @Override
+    public long estimateSearch(String q, ProductStatus status) {
+        String plan = status != null
+                ? jdbcTemplate.queryForObject(ESTIMATE_STATUS_SQL, String.class, q, q, status.name())
+                : jdbcTemplate.queryForObject(ESTIMATE_SQL, String.class, q, q);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable EXPLAIN output", e);
+        }
+    }
+}
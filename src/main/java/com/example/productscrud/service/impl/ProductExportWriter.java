@@ -0,0 +1,67 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one product per line in the requested export format; nothing is buffered beyond the current row.
+ */
+class ProductExportWriter {
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String CSV_HEADER = "id,code,name,description,price,currency,status,createdAt,updatedAt,version\n";
+
+    private final CatalogFormat format;
+    private final OutputStream out;
+    private final ObjectWriter jsonWriter;
+
+    ProductExportWriter(CatalogFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = out;
+        this.jsonWriter = objectMapper.writerFor(ProductResponse.class);
+    }
+
+    void writeHeader() throws IOException {
+        if (format == CatalogFormat.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    void write(ProductResponse product) throws IOException {
+        if (format == CatalogFormat.NDJSON) {
+            out.write(jsonWriter.writeValueAsBytes(product));
+            out.write(NEWLINE);
+            return;
+        }
+        StringBuilder line = new StringBuilder(128);
+        appendCsv(line, product.getId()).append(',');
+        appendCsv(line, product.getCode()).append(',');
+        appendCsv(line, product.getName()).append(',');
+        appendCsv(line, product.getDescription()).append(',');
+        appendCsv(line, product.getPrice() != null ? product.getPrice().toPlainString() : null).append(',');
+        appendCsv(line, product.getCurrency() != null ? product.getCurrency().name() : null).append(',');
+        appendCsv(line, product.getStatus() != null ? product.getStatus().name() : null).append(',');
+        appendCsv(line, product.getCreatedAt() != null ? product.getCreatedAt().toString() : null).append(',');
+        appendCsv(line, product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : null).append(',');
+        appendCsv(line, product.getVersion() != null ? product.getVersion().toString() : null).append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
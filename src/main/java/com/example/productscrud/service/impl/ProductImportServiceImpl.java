@@ -0,0 +1,340 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.cache.CatalogGeneration;
+import com.example.productscrud.exception.ApiException;
+import com.example.productscrud.exception.ServiceUnavailableException;
+import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.dto.response.ImportJobResponse;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.example.productscrud.repository.ProductIdAllocator;
+import com.example.productscrud.repository.ProductIdCodec;
+import com.example.productscrud.service.ProductCountService;
+import com.example.productscrud.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk catalog import for files far too large for the per-row JPA path.
+ * The upload is spooled to a temp file and processed in the background: rows are parsed and validated
+ * one at a time, external IDs are allocated per chunk, and each chunk is written with COPY into a
+ * transaction-scoped staging table and merged into products with a single upsert.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    private static final String CREATE_STAGE_SQL = """
+            CREATE TEMP TABLE product_import_stage (
+                row_no      bigint         NOT NULL,
+                external_id varchar(255)   NOT NULL,
+                external_seq bigint        NOT NULL,
+                code        varchar(50)    NOT NULL,
+                name        varchar(50)    NOT NULL,
+                description varchar(500),
+                price       numeric(19, 2) NOT NULL,
+                currency    varchar(10)    NOT NULL,
+                status      varchar(20)    NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL = """
+            COPY product_import_stage (row_no, external_id, external_seq, code, name, description, price, currency,
+                                       status)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // A name may only move with its own code; rows that would steal another product's name are rejected
+    private static final String REJECT_NAME_CLASHES_SQL = """
+            DELETE FROM product_import_stage s
+            USING products p
+            WHERE p.name = s.name AND p.code <> s.code
+            RETURNING s.row_no
+            """;
+
+    private static final String MERGE_SQL = """
+            INSERT INTO products (internal_id, external_id, external_seq, code, name, description, price, currency,
+                                  status, version, created_at, updated_at)
+            SELECT gen_random_uuid(), external_id, external_seq, code, name, description, price, currency, status,
+                   0, now(), now()
+            FROM product_import_stage
+            ON CONFLICT (code) DO UPDATE
+                SET name        = EXCLUDED.name,
+                    description = EXCLUDED.description,
+                    price       = EXCLUDED.price,
+                    currency    = EXCLUDED.currency,
+                    status      = EXCLUDED.status,
+                    version     = products.version + 1,
+                    updated_at  = now()
+            """;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductIdAllocator productIdAllocator;
+    private final CatalogGeneration catalogGeneration;
+    private final ProductCountService productCountService;
+    private final ProductRequestValidator productRequestValidator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long maxBytes;
+    private final Duration retention;
+
+    public ProductImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ProductIdAllocator productIdAllocator,
+                                    CatalogGeneration catalogGeneration,
+                                    ProductCountService productCountService,
+                                    ProductRequestValidator productRequestValidator,
+                                    ObjectMapper objectMapper,
+                                    @Value("${product.import.concurrency:2}") int concurrency,
+                                    @Value("${product.import.queue-capacity:16}") int queueCapacity,
+                                    @Value("${product.import.chunk-size:5000}") int chunkSize,
+                                    @Value("${product.import.max-bytes:512MB}") DataSize maxBytes,
+                                    @Value("${product.import.retention:24h}") Duration retention,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productIdAllocator = productIdAllocator;
+        this.catalogGeneration = catalogGeneration;
+        this.productCountService = productCountService;
+        this.productRequestValidator = productRequestValidator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes.toBytes();
+        this.retention = retention;
+        AtomicInteger counter = new AtomicInteger();
+        // Imports are I/O bound, so they follow the virtual-thread switch; concurrency stays bounded by the pool size
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("product-import-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "product-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.executor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public ImportJobResponse startImport(CatalogFormat format, InputStream body) throws IOException {
+        // Spool first so the request can return a job id while the file is processed
+        Path file = Files.createTempFile("product-import-", "." + format.getExtension());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            spool(body, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, format, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(file);
+            throw new ServiceUnavailableException(ProductResponseCode.IMPORT_BUSY, 30);
+        }
+        return job.toResponse();
+    }
+
+    // Counted while copying: chunked uploads carry no Content-Length to check up front
+    private void spool(InputStream body, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new ApiException(ProductResponseCode.IMPORT_TOO_LARGE,
+                        "An import may be at most " + maxBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    @Override
+    public ImportJobResponse getJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ApiException(ProductResponseCode.IMPORT_JOB_NOT_FOUND);
+        }
+        return job.toResponse();
+    }
+
+    private void run(ImportJob job, CatalogFormat format, Path file) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImportRowReader rows = ImportRowReader.open(format, reader, objectMapper);
+            List<ImportRowReader.Row> chunk = new ArrayList<>(chunkSize);
+            ImportRowReader.Row row;
+            while ((row = rows.next()) != null) {
+                job.rowRead();
+                String error = row.error() != null ? row.error() : productRequestValidator.validate(row.request());
+                if (error != null) {
+                    job.rowFailed(row.rowNo(), error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk);
+            }
+            job.complete();
+        } catch (Exception e) {
+            logger.error("Product import {} failed", job.getId(), e);
+            job.abort(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete import spool file {}", file, e);
+            }
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<ImportRowReader.Row> chunk) {
+        // ON CONFLICT cannot touch the same row twice in one statement, so duplicates are resolved here
+        Set<String> codes = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        List<ImportRowReader.Row> unique = new ArrayList<>(chunk.size());
+        for (ImportRowReader.Row row : chunk) {
+            if (codes.contains(row.request().code())) {
+                job.rowFailed(row.rowNo(), "Duplicate code '" + row.request().code() + "' in the same chunk");
+            } else if (names.contains(row.request().name())) {
+                job.rowFailed(row.rowNo(), "Duplicate name '" + row.request().name() + "' in the same chunk");
+            } else {
+                codes.add(row.request().code());
+                names.add(row.request().name());
+                unique.add(row);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        long[] ids = productIdAllocator.allocate(unique.size());
+        StringBuilder csv = new StringBuilder(unique.size() * 128);
+        for (int i = 0; i < unique.size(); i++) {
+            ImportRowReader.Row row = unique.get(i);
+            ProductRequest request = row.request();
+            csv.append(row.rowNo()).append(',');
+            appendQuoted(csv, ProductIdCodec.encode(ids[i])).append(',');
+            csv.append(ids[i]).append(',');
+            appendQuoted(csv, request.code()).append(',');
+            appendQuoted(csv, request.name()).append(',');
+            if (request.description() != null) {
+                appendQuoted(csv, request.description());
+            }
+            csv.append(',');
+            csv.append(request.price().toPlainString()).append(',');
+            csv.append(request.currency().name()).append(',');
+            csv.append(request.status().name()).append('\n');
+        }
+
+        try {
+            List<Long> rejected = transactionTemplate.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute(CREATE_STAGE_SQL);
+                        }
+                        try {
+                            connection.unwrap(PGConnection.class).getCopyAPI()
+                                    .copyIn(COPY_SQL, new StringReader(csv.toString()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        List<Long> clashes = new ArrayList<>();
+                        try (Statement statement = connection.createStatement();
+                             ResultSet rs = statement.executeQuery(REJECT_NAME_CLASHES_SQL)) {
+                            while (rs.next()) {
+                                clashes.add(rs.getLong(1));
+                            }
+                        }
+                        try (Statement statement = connection.createStatement()) {
+                            statement.executeUpdate(MERGE_SQL);
+                        }
+                        // Same transaction as the merge, so the list ETag moves exactly when the rows appear
+                        catalogGeneration.bump();
+                        return clashes;
+                    }));
+
+            List<Long> clashes = rejected != null ? rejected : List.of();
+            for (Long rowNo : clashes) {
+                job.rowFailed(rowNo, "Name is already used by another product");
+            }
+            job.imported(unique.size() - clashes.size());
+            // The merge both inserts and overwrites statuses, so recount rather than guess
+            productCountService.invalidate();
+        } catch (RuntimeException e) {
+            logger.warn("Import {} chunk of {} rows rejected", job.getId(), unique.size(), e);
+            for (ImportRowReader.Row row : unique) {
+                job.rowFailed(row.rowNo(), "Chunk rejected by database: " + e.getMessage());
+            }
+        }
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    @Scheduled(fixedDelayString = "${product.import.purge-interval:PT1H}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.dto.request.ProductRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Programmatic version of the {@code @Valid ProductRequest} check, for paths that report
+ * per-item errors (bulk create, file import) instead of failing the whole request.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductRequestValidator {
+
+    private final Validator validator;
+
+    /**
+     * @return a readable error message, or {@code null} when the request is valid
+     */
+    public String validate(ProductRequest request) {
+        if (request == null) {
+            return "Product must not be null";
+        }
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        return null;
+    }
+}
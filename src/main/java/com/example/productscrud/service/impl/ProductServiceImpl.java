@@ -1,126 +1,445 @@
 package com.example.productscrud.service.impl;
 
+import com.example.productscrud.cache.CatalogGeneration;
+import com.example.productscrud.cache.ReadYourWritesTracker;
 import com.example.productscrud.exception.ApiException;
 import com.example.productscrud.model.dto.request.PartialProductUpdateRequest;
+import com.example.productscrud.model.dto.request.ProductCursor;
 import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.dto.response.BulkCreateResponse;
+import com.example.productscrud.model.dto.response.BulkProductResult;
+import com.example.productscrud.model.dto.response.CatalogPage;
 import com.example.productscrud.model.dto.response.PaginationResponse;
 import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.ProductVersionTag;
 import com.example.productscrud.model.entity.Product;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.CountMode;
 import com.example.productscrud.model.enumeration.ProductStatus;
 import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.example.productscrud.repository.ProductIdAllocator;
+import com.example.productscrud.repository.ProductIdCodec;
 import com.example.productscrud.repository.ProductRepository;
+import com.example.productscrud.repository.ProductWriteRepository.UpdatedProduct;
+import com.example.productscrud.service.ProductCountService;
 import com.example.productscrud.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
-    private static final String PREFIX = "prd_";
-    private static final int PAD = 4;
     private final ProductRepository productRepository;
+    private final CatalogGeneration catalogGeneration;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ProductCountService productCountService;
+    private final ProductIdAllocator productIdAllocator;
+    private final ProductRequestValidator productRequestValidator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.bulk.flush-size:500}")
+    private int bulkFlushSize;
 
     @Override
+    @Transactional
     public ProductResponse create(ProductRequest request) {
-        if (productRepository.existsByCode(request.code())) {
-            throw new ApiException(ProductResponseCode.PRODUCT_ALREADY_EXISTS);
+        // The unique index on code is the existence check; IDs come from the pooled allocator
+        long seq = productIdAllocator.next();
+        ProductResponse created;
+        try {
+            created = productRepository.insertIfCodeAbsent(
+                    generateId(seq),
+                    seq,
+                    request.code(),
+                    request.name(),
+                    request.description(),
+                    request.price(),
+                    request.currency().name(),
+                    request.status().name()
+            ).orElseThrow(() -> new ApiException(ProductResponseCode.PRODUCT_ALREADY_EXISTS)).toResponse();
+        } catch (DataIntegrityViolationException e) {
+            // A code clash is absorbed by the upsert; a name clash is a conflict, anything else is a bug
+            if (isNameConflict(e)) {
+                throw new ApiException(ProductResponseCode.PRODUCT_ALREADY_EXISTS, "Name already exists");
+            }
+            throw e;
         }
-        Long seq = productRepository.nextProductSequence();
-        String productId = generateId(seq);
+        productCountService.adjust(created.getStatus(), 1);
+        afterWrite();
+        return created;
+    }
 
-        Product product = request.toEntity();
-        product.setExternalId(productId);
-        return productRepository.save(product).toResponse();
+    // PostgreSQL names the key of a unique violation in its detail: "Key (name)=(...) already exists."
+    private static boolean isNameConflict(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof PSQLException psql
+                && PSQLState.UNIQUE_VIOLATION.getState().equals(psql.getSQLState())
+                && psql.getServerErrorMessage() != null
+                && psql.getServerErrorMessage().getDetail() != null
+                && psql.getServerErrorMessage().getDetail().startsWith("Key (name)=");
     }
 
     @Override
+    @Transactional
+    public BulkCreateResponse createAll(List<ProductRequest> requests) {
+        BulkProductResult[] results = new BulkProductResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+
+        // 1. Validate every item against the same rules as a single create
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            String error = productRequestValidator.validate(request);
+            if (error != null) {
+                results[i] = failed(i, "VALIDATION_ERROR", error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // 2. Uniqueness of code and name against the table, in one query
+        Set<String> codes = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int i : accepted) {
+            codes.add(requests.get(i).code());
+            names.add(requests.get(i).name());
+        }
+        Set<String> takenCodes = new HashSet<>();
+        Set<String> takenNames = new HashSet<>();
+        if (!accepted.isEmpty()) {
+            for (Object[] row : productRepository.findTakenCodesAndNames(codes, names)) {
+                takenCodes.add((String) row[0]);
+                takenNames.add((String) row[1]);
+            }
+        }
+
+        // ...and against earlier items of the same batch. Only an accepted item reserves its code and name,
+        // so a rejected one cannot block a later item that reuses either
+        List<Integer> insertable = new ArrayList<>();
+        for (int i : accepted) {
+            ProductRequest request = requests.get(i);
+            if (takenCodes.contains(request.code())) {
+                results[i] = failed(i, ProductResponseCode.PRODUCT_ALREADY_EXISTS.getCode(),
+                        ProductResponseCode.PRODUCT_ALREADY_EXISTS.getDefaultMessage());
+            } else if (takenNames.contains(request.name())) {
+                results[i] = failed(i, ProductResponseCode.PRODUCT_ALREADY_EXISTS.getCode(), "Name already exists");
+            } else {
+                takenCodes.add(request.code());
+                takenNames.add(request.name());
+                insertable.add(i);
+            }
+        }
+
+        // 3. One allocator call for all external IDs, then batched inserts
+        long[] ids = productIdAllocator.allocate(insertable.size());
+        List<Product> batch = new ArrayList<>(bulkFlushSize);
+        List<Integer> batchIndexes = new ArrayList<>(bulkFlushSize);
+        Map<ProductStatus, Long> createdByStatus = new EnumMap<>(ProductStatus.class);
+        try {
+            for (int n = 0; n < insertable.size(); n++) {
+                int i = insertable.get(n);
+                Product product = requests.get(i).toEntity();
+                product.setExternalId(generateId(ids[n]));
+                product.setExternalSeq(ids[n]);
+                batch.add(product);
+                batchIndexes.add(i);
+                if (batch.size() == bulkFlushSize || n == insertable.size() - 1) {
+                    productRepository.saveAll(batch);
+                    productRepository.flush();
+                    for (int b = 0; b < batch.size(); b++) {
+                        int index = batchIndexes.get(b);
+                        createdByStatus.merge(batch.get(b).getStatus(), 1L, Long::sum);
+                        results[index] = BulkProductResult.builder()
+                                .index(index)
+                                .created(true)
+                                .product(batch.get(b).toResponse())
+                                .build();
+                    }
+                    // Keep the persistence context small regardless of request size
+                    entityManager.clear();
+                    batch.clear();
+                    batchIndexes.clear();
+                }
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took a code or name after our check; the whole batch rolls back
+            throw new ApiException(ProductResponseCode.PRODUCT_ALREADY_EXISTS,
+                    "A conflicting product was created concurrently; no products were created");
+        }
+
+        List<BulkProductResult> resultList = Arrays.asList(results);
+        int created = insertable.size();
+        if (created > 0) {
+            // Registered inside the transaction, so they apply only if it commits
+            createdByStatus.forEach(productCountService::adjust);
+            afterWrite();
+        }
+        return BulkCreateResponse.builder()
+                .createdCount(created)
+                .failedCount(results.length - created)
+                .results(resultList)
+                .build();
+    }
+
+    // New list ETag for everyone, and the writer's own reads stay on the primary for a while.
+    // Pending entity writes go out first, so no product row is locked after a generation row
+    private void afterWrite() {
+        entityManager.flush();
+        catalogGeneration.bump();
+        readYourWrites.recordWrite();
+    }
+
+    private static BulkProductResult failed(int index, String code, String message) {
+        return BulkProductResult.builder()
+                .index(index)
+                .created(false)
+                .errorCode(code)
+                .errorMessage(message)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductVersionTag getProductVersionTag(String id) {
+        return productRepository.findVersionTagByExternalSeq(seqOf(id))
+                .orElseThrow(() -> new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(String id) {
-        return findProductByIdInternal(id).toResponse();
+        return productRepository.findResponseByExternalSeq(seqOf(id))
+                .orElseThrow(() -> new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND));
     }
 
     @Override
     public Product findProductByIdInternal(String id) {
-        return productRepository.findByExternalId(id).orElseThrow(() -> new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND));
+        return productRepository.findByExternalSeq(seqOf(id)).orElseThrow(() -> new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND));
+    }
+
+    // IDs that do not decode cannot exist, so they are a 404 without a query
+    private static long seqOf(String id) {
+        long seq = ProductIdCodec.decode(id);
+        if (seq < 0) {
+            throw new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND);
+        }
+        return seq;
     }
 
     @Override
-    public ProductResponse updateProductById(String id, ProductRequest request) {
-        Product productById = findProductByIdInternal(id);
-        if (productRepository.existsByCodeAndExternalIdNot(request.code(), id)) {
+    @Transactional
+    public ProductResponse updateProductById(String id, ProductRequest request, Long ifMatchVersion) {
+        long seq = seqOf(id);
+        Optional<UpdatedProduct> updated;
+        try {
+            updated = productRepository.updateReturning(
+                    seq,
+                    request.code(),
+                    request.description(),
+                    request.price(),
+                    request.currency().name(),
+                    request.status().name(),
+                    ifMatchVersion != null ? ifMatchVersion : request.version()
+            );
+        } catch (DataIntegrityViolationException e) {
             throw new ApiException(ProductResponseCode.PRODUCT_ALREADY_EXISTS);
         }
-        productById.setCode(request.code());
-        productById.setDescription(request.description());
-        productById.setPrice(request.price());
-        productById.setCurrency(request.currency());
-        productById.setStatus(request.status());
-        return productRepository.save(productById).toResponse();
+        UpdatedProduct result = updated.orElseThrow(() -> writeMissed(id, ifMatchVersion));
+        productCountService.moved(result.previousStatus(), result.product().getStatus());
+        afterWrite();
+        return result.product();
     }
 
     public String generateId(Long seq) {
-        return PREFIX + String.format("%0" + PAD + "d", seq);
+        return ProductIdCodec.encode(seq);
     }
 
     @Override
-    public ProductResponse partialUpdateProductById(String id, PartialProductUpdateRequest request) {
-        Product productById = findProductByIdInternal(id);
-        productById.setPrice(request.price());
-        productById.setStatus(request.status());
-        return productRepository.save(productById).toResponse();
+    @Transactional
+    public ProductResponse partialUpdateProductById(String id, PartialProductUpdateRequest request, Long ifMatchVersion) {
+        UpdatedProduct result = productRepository.patchReturning(
+                seqOf(id),
+                request.price(),
+                request.status() != null ? request.status().name() : null,
+                ifMatchVersion != null ? ifMatchVersion : request.version()
+        ).orElseThrow(() -> writeMissed(id, ifMatchVersion));
+        productCountService.moved(result.previousStatus(), result.product().getStatus());
+        afterWrite();
+        return result.product();
+    }
+
+    // Zero rows updated: only now pay for a second query to tell "gone" from "changed underneath"
+    private ApiException writeMissed(String id, Long ifMatchVersion) {
+        if (!productRepository.existsByExternalSeq(seqOf(id))) {
+            return new ApiException(ProductResponseCode.PRODUCT_NOT_FOUND);
+        }
+        return new ApiException(ifMatchVersion != null
+                ? ProductResponseCode.PRODUCT_PRECONDITION_FAILED
+                : ProductResponseCode.PRODUCT_VERSION_CONFLICT);
     }
 
     @Override
-    public void deleteProductById(String id) {
+    @Transactional
+    public void deleteProductById(String id, Long ifMatchVersion) {
         Product productById = findProductByIdInternal(id);
+        if (ifMatchVersion != null && !ifMatchVersion.equals(productById.getVersion())) {
+            throw new ApiException(ProductResponseCode.PRODUCT_PRECONDITION_FAILED);
+        }
         if (productById.getStatus().equals(ProductStatus.ACTIVE)) {
             throw new ApiException(ProductResponseCode.PRODUCT_HAS_ACTIVE_ORDER);
         }
         productRepository.delete(productById);
+        productCountService.adjust(productById.getStatus(), -1);
+        afterWrite();
     }
 
     @Override
-    public PaginationResponse<List<ProductResponse>> getAllProducts(
+    @Transactional(readOnly = true)
+    public CatalogPage getAllProducts(
             String q,
             ProductStatus status,
             int page,
             int size,
-            Sort.Direction direction
+            Sort.Direction direction,
+            CountMode countMode
+    ) {
+        // First statement of the transaction, so whichever database serves the page serves the generation too
+        long generation = catalogGeneration.readInTransaction();
+        return new CatalogPage(listProducts(q, status, page, size, direction, countMode), generation);
+    }
+
+    private PaginationResponse<List<ProductResponse>> listProducts(
+            String q,
+            ProductStatus status,
+            int page,
+            int size,
+            Sort.Direction direction,
+            CountMode countMode
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, "createdAt"));
-        Page<Product> productPage;
 
         // Logic for filtering
-        if (q != null && status != null) {
-            productPage = productRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCaseAndStatus(q, q, status, pageable);
-        } else if (q != null) {
-            productPage = productRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(q, q, pageable);
-        } else if (status != null) {
-            productPage = productRepository.findByStatus(status, pageable);
+        if (q != null) {
+            // Ranked by trigram similarity, so the sort direction does not apply here.
+            // Native, so entities come back read-only and are mapped afterwards
+            String statusName = status != null ? status.name() : null;
+            if (countMode == CountMode.EXACT) {
+                Page<ProductResponse> productPage = productRepository
+                        .searchByTrigram(q, statusName, PageRequest.of(page, size))
+                        .map(Product::toResponse);
+                return paginate(productPage, productPage.getTotalElements());
+            }
+            Slice<ProductResponse> slice = productRepository
+                    .searchSliceByTrigram(q, statusName, PageRequest.of(page, size))
+                    .map(Product::toResponse);
+            return paginate(slice, countMode == CountMode.ESTIMATE ? productCountService.estimateSearch(q, status) : null);
+        }
+
+        // No COUNT(*) per page: the totals are maintained as products are written
+        Slice<ProductResponse> slice = status != null
+                ? productRepository.findResponsesByStatus(status, pageable)
+                : productRepository.findAllResponses(pageable);
+        return paginate(slice, productCountService.count(status));
+    }
+
+    // Wrapping into PaginationResponse; with a null total, totalItems and totalPages are written as null
+    private static PaginationResponse<List<ProductResponse>> paginate(Slice<ProductResponse> slice, Long total) {
+        if (total != null && !slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            // On the last page the total is known exactly, whatever the estimate or counters said
+            total = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        }
+        return PaginationResponse.<List<ProductResponse>>builder()
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .totalItems(total != null ? total.intValue() : null)
+                .totalPages(total != null ? (int) ((total + slice.getSize() - 1) / slice.getSize()) : null)
+                .items(slice.getContent())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(ProductStatus status, CatalogFormat format, OutputStream out) throws IOException {
+        ProductExportWriter writer = new ProductExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        try (Stream<Product> products = productRepository.streamAllByStatus(status)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.write(product.toResponse());
+                // Detach as we go so memory stays flat however many rows there are
+                entityManager.detach(product);
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogPage getAllProductsByCursor(
+            String q,
+            ProductStatus status,
+            String cursor,
+            int size,
+            Sort.Direction direction
+    ) {
+        long generation = catalogGeneration.readInTransaction();
+        ProductCursor after = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor);
+        // A cursor keeps the direction its first page was read in
+        Sort.Direction seek = after != null && after.direction() != null ? after.direction() : direction;
+        String statusName = status != null ? status.name() : null;
+
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Product> rows;
+        if (after == null) {
+            rows = seek.isAscending()
+                    ? productRepository.findKeysetFirstPageAsc(q, statusName, limit)
+                    : productRepository.findKeysetFirstPageDesc(q, statusName, limit);
         } else {
-            productPage = productRepository.findAll(pageable);
+            rows = seek.isAscending()
+                    ? productRepository.findKeysetPageAsc(q, statusName, after.createdAt(), after.internalId(), limit)
+                    : productRepository.findKeysetPageDesc(q, statusName, after.createdAt(), after.internalId(), limit);
         }
 
-        // Mapping content to DTOs
-        List<ProductResponse> items = productPage.getContent()
-                .stream()
+        boolean hasNext = rows.size() > size;
+        List<Product> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        List<ProductResponse> items = pageRows.stream()
                 .map(Product::toResponse)
                 .toList();
 
-        // Wrapping into PaginationResponse
-        return PaginationResponse.<List<ProductResponse>>builder()
-                .page(productPage.getNumber())
-                .size(productPage.getSize())
-                .totalItems((int) productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
+        return new CatalogPage(PaginationResponse.<List<ProductResponse>>builder()
+                .size(size)
                 .items(items)
-                .build();
+                .nextCursor(hasNext ? ProductCursor.of(pageRows.get(size - 1), seek).encode() : null)
+                .build(), generation);
     }
 
 }
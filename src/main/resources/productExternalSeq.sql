@@ -0,0 +1,22 @@
+-- products.external_seq holds the numeric product_seq value behind external_id ('prd_0042' -> 42).
+-- ProductExternalSeqMigration runs these steps on startup, after ddl-auto has added the column;
+-- they are kept here for running by hand.
+
+UPDATE products
+SET external_seq = substring(external_id FROM 5)::bigint
+WHERE external_seq IS NULL;
+
+ALTER TABLE products ALTER COLUMN external_seq SET NOT NULL;
+
+-- Lookups no longer use the varchar index on external_id.
+DO $$
+DECLARE c text;
+BEGIN
+    SELECT conname INTO c FROM pg_constraint
+    WHERE conrelid = 'products'::regclass AND contype = 'u'
+      AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                          WHERE attrelid = 'products'::regclass AND attname = 'external_id')];
+    IF c IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE products DROP CONSTRAINT %I', c);
+    END IF;
+END $$;
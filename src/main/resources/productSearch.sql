@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_products_code_trgm
+    ON products USING gin (code gin_trgm_ops);
@@ -1,3 +1,7 @@
+-- INCREMENT must equal product.id.block-size: each nextval reserves a block of that many external IDs
 CREATE SEQUENCE product_seq
     START 1
-INCREMENT 1;
+INCREMENT 50;
+
+-- Existing databases created with INCREMENT 1:
+-- ALTER SEQUENCE product_seq INCREMENT BY 50;
@@ -0,0 +1,141 @@
+package com.example.productscrud.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable);
+        threads.add(thread);
+        return thread;
+    });
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> calls = startCalls("k", () -> {
+            await(release);
+            return result;
+        });
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        }
+        assertThat(flights.getCallCount()).isEqualTo(FOLLOWERS + 1);
+        assertThat(flights.getExecutionCount()).isEqualTo(1);
+    }
+
+    // Waiting callers see the leader's own exception, e.g. the ApiException behind a 404
+    @Test
+    void everyCallerGetsTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        List<Future<Object>> calls = startCalls("k", () -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(flights.getExecutionCount()).isEqualTo(1);
+    }
+
+    // Nothing is cached: once a call completes, either way, the next one runs the loader again
+    @Test
+    void removesTheKeyOnceTheCallCompletes() {
+        assertThat(flights.execute("k", () -> "first")).isEqualTo("first");
+        assertThat(flights.inFlight()).isZero();
+
+        assertThatThrownBy(() -> flights.execute("k", () -> {
+            throw new IllegalArgumentException("bad");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(flights.inFlight()).isZero();
+
+        assertThat(flights.execute("k", () -> "second")).isEqualTo("second");
+        assertThat(flights.getExecutionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void differentKeysDoNotShare() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> a = executor.submit(() -> flights.execute("a", () -> {
+            await(release);
+            return "a";
+        }));
+        waitUntil(() -> flights.inFlight() == 1);
+
+        assertThat(flights.execute("b", () -> "b")).isEqualTo("b");
+        release.countDown();
+        assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(flights.getExecutionCount()).isEqualTo(2);
+    }
+
+    // Starts a leader and waits until it is running, then starts followers and waits until every one
+    // of them is parked on the leader's result (the leader itself waits with a timeout)
+    private List<Future<Object>> startCalls(String key, Supplier<Object> loader) {
+        List<Future<Object>> calls = new ArrayList<>();
+        calls.add(executor.submit(() -> flights.execute(key, loader)));
+        waitUntil(() -> flights.inFlight() == 1);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            calls.add(executor.submit(() -> flights.execute(key, loader)));
+        }
+        waitUntil(() -> threads.size() == FOLLOWERS + 1 && threads.stream().skip(1)
+                .allMatch(thread -> thread.getState() == Thread.State.WAITING));
+        return calls;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for callers");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("Loader was never released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
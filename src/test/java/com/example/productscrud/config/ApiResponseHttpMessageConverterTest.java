@@ -0,0 +1,120 @@
+package com.example.productscrud.config;
+
+import com.example.productscrud.model.dto.response.ApiResponse;
+import com.example.productscrud.model.dto.response.PaginationResponse;
+import com.example.productscrud.model.dto.response.ProductResponse;
+import com.example.productscrud.model.dto.response.Status;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.model.enumeration.code.CommonResponseCode;
+import com.example.productscrud.model.enumeration.code.ProductResponseCode;
+import com.example.productscrud.model.enumeration.code.ResponseCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written envelope must produce exactly the bytes Jackson does with Boot's defaults,
+ * or clients would see the format change depending on which converter served them.
+ */
+class ApiResponseHttpMessageConverterTest {
+
+    // What JacksonAutoConfiguration builds: the builder's defaults plus ISO dates instead of timestamps
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final ApiResponseHttpMessageConverter CONVERTER = converter();
+
+    private static ApiResponseHttpMessageConverter converter() {
+        List<ResponseCode> responseCodes = new ArrayList<>(List.of(ProductResponseCode.values()));
+        responseCodes.addAll(List.of(CommonResponseCode.values()));
+        return new ApiResponseHttpMessageConverter(OBJECT_MAPPER, new SimpleMeterRegistry(), responseCodes);
+    }
+
+    static Stream<Arguments> responses() {
+        LocalDateTime created = LocalDateTime.of(2026, 3, 7, 9, 5, 1);
+        ProductResponse whole = product(1, created, created);
+        ProductResponse halfSecond = product(2, created.withNano(500_000_000), created.withNano(10_000_000));
+        ProductResponse micros = product(3, created.withNano(123_456_000), created.withNano(123_456_789));
+        ProductResponse sparse = ProductResponse.builder()
+                .id("prd_0004")
+                .code("SP-4")
+                .name("Café \"quoted\" – 😀")
+                .build();
+        return Stream.of(
+                Arguments.of("product, whole seconds", ok(ProductResponseCode.PRODUCT_FOUND, whole)),
+                Arguments.of("product, half second", ok(ProductResponseCode.PRODUCT_FOUND, halfSecond)),
+                Arguments.of("product, micro and nano fractions", ok(ProductResponseCode.PRODUCT_FOUND, micros)),
+                Arguments.of("product, nulls and escapes", ok(ProductResponseCode.PRODUCT_FOUND, sparse)),
+                Arguments.of("page with totals, no cursor", ok(ProductResponseCode.PRODUCTS_LISTED,
+                        new PaginationResponse<>(0, 3, 42, 14, List.of(whole, halfSecond, micros), null))),
+                Arguments.of("page with cursor, null totals", ok(ProductResponseCode.PRODUCTS_LISTED,
+                        new PaginationResponse<>(null, 2, null, null, List.of(whole, sparse),
+                                "MjAyNi0wMy0wN1QwOTowNTowMXw"))),
+                Arguments.of("empty page", ok(ProductResponseCode.PRODUCTS_LISTED,
+                        new PaginationResponse<>(5, 20, 42, 3, List.of(), null))),
+                Arguments.of("custom message", ApiResponse.builder()
+                        .status(new Status(ProductResponseCode.PRODUCT_NOT_FOUND.getCode(), "No product \"prd_9\""))
+                        .build()),
+                Arguments.of("unknown code", ApiResponse.builder()
+                        .status(new Status("SOMETHING_ELSE", "Not a registered code"))
+                        .build()),
+                Arguments.of("non-product payload", ok(CommonResponseCode.SERVER_BUSY,
+                        Map.of("retryAfterSeconds", 1))),
+                Arguments.of("page of non-products", ok(ProductResponseCode.PRODUCTS_LISTED,
+                        new PaginationResponse<>(0, 2, 2, 1, List.of("a", "b"), null))),
+                Arguments.of("null status and data", new ApiResponse<>(null, null))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("responses")
+    void writesTheSameBytesAsJackson(String description, ApiResponse<?> response) throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        CONVERTER.writeEnvelope(response, written);
+
+        byte[] expected = OBJECT_MAPPER.writeValueAsBytes(response);
+        assertThat(written.toString(StandardCharsets.UTF_8))
+                .isEqualTo(new String(expected, StandardCharsets.UTF_8));
+        assertThat(written.toByteArray()).isEqualTo(expected);
+    }
+
+    private static ApiResponse<Object> ok(ResponseCode code, Object data) {
+        return ApiResponse.builder()
+                .status(new Status(code.getCode(), code.getDefaultMessage()))
+                .data(data)
+                .build();
+    }
+
+    private static ProductResponse product(long seq, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return ProductResponse.builder()
+                .id("prd_000" + seq)
+                .code("KB-" + seq)
+                .name("Mechanical keyboard " + seq)
+                .description("Tenkeyless, brown switches")
+                .price(new BigDecimal("149.90"))
+                .currency(Currency.USD)
+                .status(ProductStatus.ACTIVE)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(seq)
+                .build();
+    }
+}
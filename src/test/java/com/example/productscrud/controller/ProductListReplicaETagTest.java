@@ -0,0 +1,152 @@
+package com.example.productscrud.controller;
+
+import com.example.productscrud.repository.ProductIdCodec;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two database instances: the app's primary, and a second one registered as its replica that only
+ * "replays" what the test copies into it, so replication lag is under the test's control.
+ * A reader must never be handed a tag for data it has not been served.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductListReplicaETagTest {
+
+    private static final EmbeddedPostgres PRIMARY = start();
+    private static final EmbeddedPostgres REPLICA = start();
+
+    // Only the columns the listing reads; the replica gets no ddl-auto
+    private static final String REPLICA_SCHEMA = """
+            CREATE TABLE IF NOT EXISTS products (
+                internal_id  uuid PRIMARY KEY,
+                external_id  varchar(255) NOT NULL,
+                external_seq bigint NOT NULL,
+                code         varchar(50) NOT NULL,
+                name         varchar(50) NOT NULL,
+                description  varchar(500),
+                price        numeric(19, 2) NOT NULL,
+                currency     varchar(10) NOT NULL,
+                status       varchar(20) NOT NULL,
+                version      bigint NOT NULL,
+                created_at   timestamp(6) NOT NULL,
+                updated_at   timestamp(6) NOT NULL
+            );
+            CREATE TABLE IF NOT EXISTS catalog_generation (
+                id    integer PRIMARY KEY,
+                value bigint NOT NULL
+            );
+            """;
+
+    private static final String PRODUCT_ID = ProductIdCodec.encode(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    private final JdbcTemplate replica = new JdbcTemplate(REPLICA.getPostgresDatabase());
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static {
+        // The ID allocator expects the sequence; everything else on the primary comes from ddl-auto
+        new ResourceDatabasePopulator(new ClassPathResource("productSequence.sql"))
+                .execute(PRIMARY.getPostgresDatabase());
+    }
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("app.datasource.replicas[0].url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        PRIMARY.close();
+        REPLICA.close();
+    }
+
+    @BeforeEach
+    void seedBothInstances() {
+        replica.execute(REPLICA_SCHEMA);
+        for (JdbcTemplate db : new JdbcTemplate[]{primary, replica}) {
+            db.update("DELETE FROM products");
+            db.update("DELETE FROM catalog_generation");
+            db.update("""
+                    INSERT INTO products (internal_id, external_id, external_seq, code, name, description, price,
+                                          currency, status, version, created_at, updated_at)
+                    VALUES (gen_random_uuid(), ?, 1, 'ETAG-1', 'ETag product', 'Seeded for the ETag test', 10.00,
+                            'USD', 'INACTIVE', 0, now(), now())
+                    """, PRODUCT_ID);
+            db.update("INSERT INTO catalog_generation (id, value) VALUES (1, 1)");
+        }
+    }
+
+    @Test
+    void lagging_replica_page_carries_its_own_generation() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(user("reader").roles("PRODUCT_READ")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"c1\""));
+
+        // Written on the primary by another user; the replica has not replayed it yet
+        mockMvc.perform(patch("/api/v1/products/{id}", PRODUCT_ID)
+                        .with(user("writer").roles("PRODUCT_WRITE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 20.00}"))
+                .andExpect(status().isOk());
+
+        // The primary has moved on, so the old tag is not confirmed; the page is still the replica's,
+        // and its tag must say so rather than claim the primary's generation
+        mockMvc.perform(get("/api/v1/products").with(user("reader").roles("PRODUCT_READ"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"c1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"c1\""))
+                .andExpect(jsonPath("$.data.items[0].price").value(10.00));
+
+        // Replica catches up
+        replica.update("UPDATE products SET price = 20.00, version = 1, updated_at = now()");
+        replica.update("UPDATE catalog_generation SET value = 2");
+
+        mockMvc.perform(get("/api/v1/products").with(user("reader").roles("PRODUCT_READ"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"c1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"c2\""))
+                .andExpect(jsonPath("$.data.items[0].price").value(20.00));
+
+        mockMvc.perform(get("/api/v1/products").with(user("reader").roles("PRODUCT_READ"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"c2\""))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.productscrud.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductIdAllocatorTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    @Test
+    void handsOutABlockBeforeFetchingTheNext() {
+        when(productRepository.productSequenceIncrement()).thenReturn(50L);
+        when(productRepository.nextProductSequence()).thenReturn(1L, 51L);
+        ProductIdAllocator allocator = new ProductIdAllocator(productRepository, 50);
+
+        long[] first = LongStream.range(0, 50).map(i -> allocator.next()).toArray();
+        assertThat(first).containsExactly(LongStream.rangeClosed(1, 50).toArray());
+        verify(productRepository, times(1)).nextProductSequence();
+
+        assertThat(allocator.next()).isEqualTo(51);
+        verify(productRepository, times(2)).nextProductSequence();
+    }
+
+    // A mismatch would hand out values another node's block also covers
+    @Test
+    void sizesBlocksFromTheSequenceIncrementNotTheSetting() {
+        when(productRepository.productSequenceIncrement()).thenReturn(20L);
+        when(productRepository.nextProductSequence()).thenReturn(1L, 21L);
+        ProductIdAllocator allocator = new ProductIdAllocator(productRepository, 50);
+
+        for (int i = 0; i < 20; i++) {
+            allocator.next();
+        }
+        assertThat(allocator.next()).isEqualTo(21);
+    }
+
+    @Test
+    void allocatesAcrossBlocksInOneRoundTrip() {
+        when(productRepository.productSequenceIncrement()).thenReturn(50L);
+        when(productRepository.nextProductSequenceBlocks(3)).thenReturn(List.of(101L, 151L, 201L));
+        ProductIdAllocator allocator = new ProductIdAllocator(productRepository, 50);
+
+        long[] ids = allocator.allocate(120);
+
+        assertThat(ids).containsExactly(LongStream.rangeClosed(101, 220).toArray());
+        verify(productRepository, never()).nextProductSequence();
+    }
+
+    @Test
+    void allocatingNothingSkipsTheDatabase() {
+        ProductIdAllocator allocator = new ProductIdAllocator(productRepository, 50);
+
+        assertThat(allocator.allocate(0)).isEmpty();
+        verify(productRepository, never()).nextProductSequenceBlocks(0);
+    }
+
+    @Test
+    void concurrentCallersNeverShareAnIdOrRefillTwice() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        when(productRepository.productSequenceIncrement()).thenReturn(50L);
+        when(productRepository.nextProductSequence()).thenAnswer(call -> sequence.getAndAdd(50));
+        ProductIdAllocator allocator = new ProductIdAllocator(productRepository, 50);
+
+        int threads = 8;
+        int perThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = LongStream.range(0, threads)
+                    .<Future<?>>mapToObj(t -> executor.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            ids.add(allocator.next());
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(threads * perThread);
+        verify(productRepository, times(threads * perThread / 50)).nextProductSequence();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.productscrud.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductIdCodecTest {
+
+    @Test
+    void padsToFourDigitsAndGrowsPastThem() {
+        assertThat(ProductIdCodec.encode(0)).isEqualTo("prd_0000");
+        assertThat(ProductIdCodec.encode(42)).isEqualTo("prd_0042");
+        assertThat(ProductIdCodec.encode(9999)).isEqualTo("prd_9999");
+        assertThat(ProductIdCodec.encode(10000)).isEqualTo("prd_10000");
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 42, 999, 1000, 9999, 10000, 123456789, 999_999_999_999_999_999L})
+    void roundTrips(long seq) {
+        assertThat(ProductIdCodec.decode(ProductIdCodec.encode(seq))).isEqualTo(seq);
+    }
+
+    @Test
+    void rejectsNegativeSequences() {
+        assertThatThrownBy(() -> ProductIdCodec.encode(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Only the canonical form decodes, so no two public IDs name the same row
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            "prd_", "prd_042", "prd_01234", "prd_00042", "PRD_0042", "prod_0042", "0042",
+            "prd_00a2", "prd_-042", "prd_+042", "prd_ 042", "prd_1234567890123456789"
+    })
+    void rejectsNonCanonicalIds(String id) {
+        assertThat(ProductIdCodec.decode(id)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.dto.request.ProductRequest;
+import com.example.productscrud.model.enumeration.CatalogFormat;
+import com.example.productscrud.model.enumeration.Currency;
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRowReaderTest {
+
+    private static final String HEADER = "code,name,description,price,currency,status\n";
+
+    @Test
+    void readsQuotedCommasDoubledQuotesAndLineBreaks() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(HEADER
+                + "KB-1,\"Keyboard, mechanical\",\"The \"\"best\"\" one\",149.90,USD,ACTIVE\n"
+                + "KB-2,Keyboard,\"Line one\nline two\",10,RIEL,INACTIVE\n");
+
+        assertThat(rows).hasSize(2);
+        ProductRequest first = rows.get(0).request();
+        assertThat(first.code()).isEqualTo("KB-1");
+        assertThat(first.name()).isEqualTo("Keyboard, mechanical");
+        assertThat(first.description()).isEqualTo("The \"best\" one");
+        assertThat(first.price()).isEqualByComparingTo(new BigDecimal("149.90"));
+        assertThat(first.currency()).isEqualTo(Currency.USD);
+        assertThat(first.status()).isEqualTo(ProductStatus.ACTIVE);
+        assertThat(rows.get(1).request().description()).isEqualTo("Line one\nline two");
+        assertThat(rows.get(1).rowNo()).isEqualTo(2);
+    }
+
+    @Test
+    void treatsCrlfLikeLf() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(HEADER.replace("\n", "\r\n")
+                + "KB-1,Keyboard,Tenkeyless,1.50,USD,ACTIVE\r\n"
+                + "KB-2,Mouse,\"Wireless\r\nmouse\",2,USD,ACTIVE\r\n");
+
+        assertThat(rows).extracting(row -> row.request().status())
+                .containsExactly(ProductStatus.ACTIVE, ProductStatus.ACTIVE);
+        assertThat(rows.get(1).request().description()).isEqualTo("Wireless\r\nmouse");
+    }
+
+    @Test
+    void readsTheLastRecordWithoutATrailingNewline() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(HEADER + "KB-1,Keyboard,Tenkeyless,1.50,USD,\"ACTIVE\"");
+
+        assertThat(rows).singleElement().satisfies(row -> assertThat(row.request().status()).isEqualTo(ProductStatus.ACTIVE));
+    }
+
+    @Test
+    void skipsBlankLinesButKeepsCountingThem() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(HEADER + "\nKB-1,Keyboard,Tenkeyless,1.50,USD,ACTIVE\n\n");
+
+        assertThat(rows).singleElement().satisfies(row -> assertThat(row.rowNo()).isEqualTo(2));
+    }
+
+    @Test
+    void matchesHeaderColumnsByNameInAnyOrderAndCase() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(" Status ,PRICE,Currency,Code\nACTIVE,3,USD,KB-9\n");
+
+        ProductRequest request = rows.get(0).request();
+        assertThat(request.code()).isEqualTo("KB-9");
+        assertThat(request.name()).isNull();
+        assertThat(request.price()).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void reportsUnparseableValuesPerRow() throws IOException {
+        List<ImportRowReader.Row> rows = readCsv(HEADER
+                + "KB-1,Keyboard,Tenkeyless,cheap,USD,ACTIVE\n"
+                + "KB-2,Keyboard,Tenkeyless,1,USD,ACTIVE\n");
+
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).error()).isEqualTo("Invalid value 'cheap' for field 'price'");
+        assertThat(rows.get(1).error()).isNull();
+    }
+
+    @Test
+    void rejectsAHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> readCsv("code,name,price,currency\nKB-1,Keyboard,1,USD\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV header is missing column 'status'");
+        assertThatThrownBy(() -> readCsv(""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV file is empty");
+    }
+
+    private static List<ImportRowReader.Row> readCsv(String csv) throws IOException {
+        ImportRowReader reader = ImportRowReader.open(CatalogFormat.CSV,
+                new BufferedReader(new StringReader(csv)), new ObjectMapper());
+        List<ImportRowReader.Row> rows = new ArrayList<>();
+        ImportRowReader.Row row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
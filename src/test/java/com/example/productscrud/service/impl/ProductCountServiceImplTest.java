@@ -0,0 +1,131 @@
+package com.example.productscrud.service.impl;
+
+import com.example.productscrud.model.enumeration.ProductStatus;
+import com.example.productscrud.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Interleaves a writer's commit with the reconcile's GROUP BY. The writer is a transaction driven by hand:
+ * adjust() registers its synchronization, and the test fires beforeCommit and afterCompletion at the
+ * points where a concurrent commit could land relative to the snapshot.
+ */
+class ProductCountServiceImplTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ProductCountServiceImpl counts;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        counts = new ProductCountServiceImpl(productRepository, mock(JdbcTemplate.class), new ObjectMapper(),
+                transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        counts.shutdown();
+    }
+
+    @Test
+    void writeCommittedDuringTheSnapshotIsNotCountedTwice() {
+        seed(10);
+        // In the table already, so the snapshot sees it, but its after-commit delta has not been applied yet
+        List<TransactionSynchronization> writer = beginWrite(ProductStatus.ACTIVE, 1);
+        writer.forEach(sync -> sync.beforeCommit(false));
+
+        when(productRepository.countGroupedByStatus())
+                .thenReturn(rows(11))
+                .thenAnswer(call -> {
+                    writer.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                    return rows(11);
+                })
+                .thenReturn(rows(11));
+        counts.reconcile();
+
+        assertThat(counts.count(ProductStatus.ACTIVE)).isEqualTo(11);
+        // Twice refused while the writer was between commit and apply, then taken
+        verify(productRepository, times(1 + 3)).countGroupedByStatus();
+    }
+
+    @Test
+    void writeCommittedAfterTheSnapshotReadIsNotLost() {
+        seed(10);
+        List<TransactionSynchronization> writer = beginWrite(ProductStatus.ACTIVE, 1);
+
+        when(productRepository.countGroupedByStatus())
+                .thenAnswer(call -> {
+                    // The snapshot has read 10; the write commits and applies before the result is swapped in
+                    writer.forEach(sync -> sync.beforeCommit(false));
+                    writer.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                    return rows(10);
+                })
+                .thenReturn(rows(11));
+        counts.reconcile();
+
+        assertThat(counts.count(ProductStatus.ACTIVE)).isEqualTo(11);
+    }
+
+    @Test
+    void rolledBackWritesDoNotBlockOrChangeTheTotals() {
+        seed(10);
+        List<TransactionSynchronization> writer = beginWrite(ProductStatus.ACTIVE, 1);
+        writer.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        when(productRepository.countGroupedByStatus()).thenReturn(rows(10));
+        counts.reconcile();
+
+        assertThat(counts.count(ProductStatus.ACTIVE)).isEqualTo(10);
+        verify(productRepository, times(1 + 1)).countGroupedByStatus();
+    }
+
+    @Test
+    void countsInlineUntilTheFirstReconcileHasFinished() {
+        counts.shutdown();
+        when(productRepository.countGroupedByStatus())
+                .thenReturn(List.<Object[]>of(new Object[]{ProductStatus.ACTIVE, 7L}, new Object[]{ProductStatus.INACTIVE, 2L}));
+
+        assertThat(counts.count(null)).isEqualTo(9);
+        assertThat(counts.count(ProductStatus.INACTIVE)).isEqualTo(2);
+    }
+
+    private void seed(long active) {
+        when(productRepository.countGroupedByStatus()).thenReturn(rows(active));
+        counts.reconcile();
+        assertThat(counts.count(ProductStatus.ACTIVE)).isEqualTo(active);
+    }
+
+    private List<TransactionSynchronization> beginWrite(ProductStatus status, long delta) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counts.adjust(status, delta);
+            return new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static List<Object[]> rows(long active) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{ProductStatus.ACTIVE, active});
+        return rows;
+    }
+}